@@ -0,0 +1,102 @@
+package pacman.board;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import pacman.util.Position;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static pacman.board.BoardItem.*;
+
+/**
+ * Benchmarks the PacmanBoard hot paths on square boards of different sizes.
+ * Each benchmark reports throughput and sampled latency percentiles, run with "-prof gc" for allocation rates.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class PacmanBoardBenchmark {
+
+    /* Positions visited in a fixed random order so lookups are not all sequential */
+    private static final int POSITIONS = 4096;
+
+    @Param({"16", "128", "1024"})
+    public int size;
+
+    private PacmanBoard board;
+    private Position[] positions;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void createBoard() {
+        board = new PacmanBoard(size, size);
+        board.reset();
+        board.setEntry(new Position(1, 1), PACMAN_SPAWN);
+        board.setEntry(new Position(size - 2, size - 2), GHOST_SPAWN);
+        SplittableRandom random = new SplittableRandom(2019);
+        positions = new Position[POSITIONS];
+        for (int i = 0; i < POSITIONS; i++) {
+            positions[i] = new Position(random.nextInt(1, size - 1), random.nextInt(1, size - 1));
+        }
+    }
+
+    private Position nextPosition() {
+        next = (next + 1) & (POSITIONS - 1);
+        return positions[next];
+    }
+
+    @Benchmark
+    public BoardItem getEntry() {
+        return board.getEntry(nextPosition());
+    }
+
+    @Benchmark
+    public void getEntrySweep(Blackhole blackhole) {
+        // Reads every tile in row order, the access pattern of rendering and of the old full scans
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                blackhole.consume(board.getEntry(Position.of(x, y)));
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean isEmpty() {
+        return board.isEmpty();
+    }
+
+    @Benchmark
+    public void eatAndReset(Blackhole blackhole) {
+        // A short game: a handful of dots eaten, then the board is reset for the next one
+        for (int i = 0; i < 16; i++) {
+            blackhole.consume(board.eatDot(nextPosition()));
+        }
+        board.reset();
+    }
+
+    @Benchmark
+    public void setEntryWithSpawns() {
+        // Moves the pacman spawn, which clears the old spawn tile
+        board.setEntry(nextPosition(), PACMAN_SPAWN);
+    }
+
+    @Benchmark
+    public PacmanBoard copy() {
+        return new PacmanBoard(board);
+    }
+}
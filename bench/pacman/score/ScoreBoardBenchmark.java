@@ -0,0 +1,73 @@
+package pacman.score;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks ScoreBoard with different numbers of stored entries.
+ * Each benchmark reports throughput and sampled latency percentiles, run with "-prof gc" for allocation rates.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ScoreBoardBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    public int entries;
+
+    private ScoreBoard scoreBoard;
+    private String[] names;
+    private int next;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void createScoreBoard() {
+        random = new SplittableRandom(2019);
+        scoreBoard = new ScoreBoard();
+        names = new String[entries];
+        for (int i = 0; i < entries; i++) {
+            names[i] = "player" + i;
+            scoreBoard.setScore(names[i], random.nextInt(100000));
+        }
+    }
+
+    @Benchmark
+    public List<String> getEntriesByScore() {
+        return scoreBoard.getEntriesByScore();
+    }
+
+    @Benchmark
+    public List<String> getEntriesByName() {
+        return scoreBoard.getEntriesByName();
+    }
+
+    @Benchmark
+    public void setScore() {
+        // Replaces the score of an existing name, so the board stays the same size
+        next = next + 1 == entries ? 0 : next + 1;
+        scoreBoard.setScore(names[next], random.nextInt(100000));
+    }
+
+    @Benchmark
+    public int increaseScore() {
+        scoreBoard.increaseScore(10);
+        return scoreBoard.getScore();
+    }
+}
@@ -0,0 +1,100 @@
+package pacman.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks Position arithmetic, hashing and distances over coordinates in a square of different sizes.
+ * Sizes up to 256 are served from the shared Position cache, larger ones allocate.
+ * Each benchmark reports throughput and sampled latency percentiles, run with "-prof gc" for allocation rates.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class PositionBenchmark {
+
+    private static final int POSITIONS = 1024;
+
+    @Param({"64", "4096"})
+    public int size;
+
+    private Position[] positions;
+    private int[] xs;
+    private int[] ys;
+    private int next;
+
+    @Setup
+    public void createPositions() {
+        SplittableRandom random = new SplittableRandom(2019);
+        positions = new Position[POSITIONS];
+        xs = new int[POSITIONS];
+        ys = new int[POSITIONS];
+        for (int i = 0; i < POSITIONS; i++) {
+            xs[i] = random.nextInt(size / 2);
+            ys[i] = random.nextInt(size / 2);
+            positions[i] = new Position(xs[i], ys[i]);
+        }
+    }
+
+    private Position nextPosition() {
+        next = (next + 1) & (POSITIONS - 1);
+        return positions[next];
+    }
+
+    @Benchmark
+    public Position add() {
+        return nextPosition().add(nextPosition());
+    }
+
+    @Benchmark
+    public Position multiply() {
+        return nextPosition().multiply(2);
+    }
+
+    @Benchmark
+    public double distance() {
+        return nextPosition().distance(nextPosition());
+    }
+
+    @Benchmark
+    public int manhattanDistance() {
+        return nextPosition().manhattanDistance(nextPosition());
+    }
+
+    @Benchmark
+    public boolean equalsPosition() {
+        return nextPosition().equals(nextPosition());
+    }
+
+    @Benchmark
+    public int hashCodePosition() {
+        return nextPosition().hashCode();
+    }
+
+    @Benchmark
+    public Position of() {
+        Position position = nextPosition();
+        return Position.of(position.getX(), position.getY());
+    }
+
+    @Benchmark
+    public int nearestSquared() {
+        Position position = nextPosition();
+        return Position.nearestSquared(position.getX(), position.getY(), xs, ys, POSITIONS);
+    }
+}
@@ -0,0 +1,406 @@
+package pacman.board;
+
+import pacman.util.Position;
+
+import java.util.Arrays;
+
+/**
+ * Bitboard - a set of tiles on a board of a given width and height, held as one bit per tile.
+ * Bit ( y * width + x ) of the set represents the tile at ( x, y ), the same layout a TileStore uses.
+ * Set operations work on 64 tiles per step.
+ */
+public class Bitboard {
+
+    private final int width;
+    private final int height;
+    private final int size;
+    private final long[] words;
+
+    /**
+     * Creates an empty bitboard for a board of the given width and height.
+     *
+     * @param width the width of the board.
+     * @param height the height of the board.
+     * @throws IllegalArgumentException if either dimension is not positive or the board is too large.
+     */
+    public Bitboard(int width, int height) throws IllegalArgumentException {
+        if (width < 1 || height < 1) {
+            throw new IllegalArgumentException("board dimensions must be positive: " + width + "x" + height);
+        }
+        try {
+            size = Math.multiplyExact(width, height);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("board is too large: " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+        words = new long[(size + 63) >>> 6];
+    }
+
+    /* Creates a bitboard with the same dimensions as other and a copy of its words */
+    private Bitboard(Bitboard other) {
+        width = other.width;
+        height = other.height;
+        size = other.size;
+        words = other.words.clone();
+    }
+
+    /**
+     * Gets the width of the board this bitboard covers.
+     *
+     * @return the width of the board.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Gets the height of the board this bitboard covers.
+     *
+     * @return the height of the board.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Checks if the tile at the given index is in the set.
+     *
+     * @param index the flat index of the tile.
+     * @return true if the tile is in the set, false otherwise.
+     * @throws IndexOutOfBoundsException
+     */
+    public boolean get(int index) throws IndexOutOfBoundsException {
+        checkIndex(index);
+        return (words[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Checks if the tile at the given position is in the set.
+     *
+     * @param position the position of the tile.
+     * @return true if the tile is in the set, false otherwise.
+     * @throws IndexOutOfBoundsException
+     * @throws NullPointerException
+     */
+    public boolean get(Position position) throws IndexOutOfBoundsException, NullPointerException {
+        return get(index(position));
+    }
+
+    /**
+     * Adds the tile at the given index to the set.
+     *
+     * @param index the flat index of the tile.
+     * @throws IndexOutOfBoundsException
+     */
+    public void set(int index) throws IndexOutOfBoundsException {
+        checkIndex(index);
+        words[index >>> 6] |= 1L << index;
+    }
+
+    /**
+     * Adds the tile at the given position to the set.
+     *
+     * @param position the position of the tile.
+     * @throws IndexOutOfBoundsException
+     * @throws NullPointerException
+     */
+    public void set(Position position) throws IndexOutOfBoundsException, NullPointerException {
+        set(index(position));
+    }
+
+    /**
+     * Removes the tile at the given index from the set.
+     *
+     * @param index the flat index of the tile.
+     * @throws IndexOutOfBoundsException
+     */
+    public void clear(int index) throws IndexOutOfBoundsException {
+        checkIndex(index);
+        words[index >>> 6] &= ~(1L << index);
+    }
+
+    /**
+     * Intersects this set with another, keeping only the tiles in both.
+     *
+     * @param other the bitboard to intersect with.
+     * @return this bitboard.
+     * @throws IllegalArgumentException if the bitboards cover boards of different dimensions.
+     */
+    public Bitboard and(Bitboard other) throws IllegalArgumentException {
+        checkSameBoard(other);
+        for (int i = 0; i < words.length; i++) {
+            words[i] &= other.words[i];
+        }
+        return this;
+    }
+
+    /**
+     * Adds every tile of another set to this set.
+     *
+     * @param other the bitboard to unite with.
+     * @return this bitboard.
+     * @throws IllegalArgumentException if the bitboards cover boards of different dimensions.
+     */
+    public Bitboard or(Bitboard other) throws IllegalArgumentException {
+        checkSameBoard(other);
+        for (int i = 0; i < words.length; i++) {
+            words[i] |= other.words[i];
+        }
+        return this;
+    }
+
+    /**
+     * Removes every tile of another set from this set.
+     *
+     * @param other the bitboard holding the tiles to remove.
+     * @return this bitboard.
+     * @throws IllegalArgumentException if the bitboards cover boards of different dimensions.
+     */
+    public Bitboard andNot(Bitboard other) throws IllegalArgumentException {
+        checkSameBoard(other);
+        for (int i = 0; i < words.length; i++) {
+            words[i] &= ~other.words[i];
+        }
+        return this;
+    }
+
+    /**
+     * Creates a copy of this bitboard. Changes to one bitboard do not affect the copy.
+     *
+     * @return a copy of this bitboard.
+     */
+    public Bitboard copy() {
+        return new Bitboard(this);
+    }
+
+    /**
+     * Counts the tiles in the set.
+     *
+     * @return the number of tiles in the set.
+     */
+    public int cardinality() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Counts the tiles of the set inside a rectangular region of the board.
+     *
+     * @param x the x coordinate of the top left corner of the region.
+     * @param y the y coordinate of the top left corner of the region.
+     * @param regionWidth the width of the region.
+     * @param regionHeight the height of the region.
+     * @return the number of tiles in the set which lie inside the region.
+     * @throws IndexOutOfBoundsException if the region does not lie inside the board.
+     */
+    public int countInRegion(int x, int y, int regionWidth, int regionHeight) throws IndexOutOfBoundsException {
+        if (x < 0 || y < 0 || regionWidth < 0 || regionHeight < 0
+                || x + regionWidth > width || y + regionHeight > height) {
+            throw new IndexOutOfBoundsException("region is outside the board");
+        }
+        int count = 0;
+        // Each row of the region is one contiguous run of bits
+        for (int row = y; row < y + regionHeight; row++) {
+            int from = row * width + x;
+            count += countRange(from, from + regionWidth);
+        }
+        return count;
+    }
+
+    /* Counts the set bits in [from, to) */
+    private int countRange(int from, int to) {
+        if (from >= to) {
+            return 0;
+        }
+        int first = from >>> 6;
+        int last = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+        if (first == last) {
+            return Long.bitCount(words[first] & firstMask & lastMask);
+        }
+        int count = Long.bitCount(words[first] & firstMask);
+        for (int i = first + 1; i < last; i++) {
+            count += Long.bitCount(words[i]);
+        }
+        return count + Long.bitCount(words[last] & lastMask);
+    }
+
+    /**
+     * Finds the first tile in the set at or after the given index.
+     *
+     * @param from the index to start searching from.
+     * @return the index of the next tile in the set, or -1 if there is none.
+     */
+    public int nextSetBit(int from) {
+        if (from < 0) {
+            from = 0;
+        }
+        if (from >= size) {
+            return -1;
+        }
+        int i = from >>> 6;
+        long word = words[i] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                return (i << 6) + Long.numberOfTrailingZeros(word);
+            }
+            if (++i == words.length) {
+                return -1;
+            }
+            word = words[i];
+        }
+    }
+
+    /**
+     * Finds every tile of this set which can be reached from the start tile by moving up, down, left or right
+     * through tiles of this set. Fills one run of tiles along a row at a time, 64 tiles per step, so each
+     * reachable run is visited once.
+     *
+     * @param start the position to start from.
+     * @return a new bitboard holding the reachable tiles, empty if start is not in this set.
+     * @throws IndexOutOfBoundsException
+     * @throws NullPointerException
+     */
+    public Bitboard reachableFrom(Position start) throws IndexOutOfBoundsException, NullPointerException {
+        Bitboard reached = new Bitboard(width, height);
+        int startIndex = index(start);
+        if (!get(startIndex)) {
+            return reached;
+        }
+        // Tiles which start runs still to be filled
+        int[] pending = new int[16];
+        int count = 0;
+        pending[count++] = startIndex;
+        while (count > 0) {
+            int seed = pending[--count];
+            if (reached.get(seed)) {
+                continue;
+            }
+            int rowStart = seed - seed % width;
+            int from = runStart(seed, rowStart);
+            int to = runEnd(seed, rowStart + width);
+            reached.setRange(from, to);
+            // Every run of unreached tiles touching the filled run in the rows above and below is filled later
+            for (int offset = -width; offset <= width; offset += 2 * width) {
+                if (rowStart + offset < 0 || rowStart + offset >= size) {
+                    continue;
+                }
+                int next = reached.nextUnreached(words, from + offset, to + offset);
+                while (next >= 0) {
+                    if (count == pending.length) {
+                        pending = Arrays.copyOf(pending, count * 2);
+                    }
+                    pending[count++] = next;
+                    next = reached.nextUnreached(words, runEnd(next, to + offset), to + offset);
+                }
+            }
+        }
+        return reached;
+    }
+
+    /* Finds the first index at or after from, before limit, which is not in the set, or limit if there is none */
+    private int runEnd(int from, int limit) {
+        int i = from >>> 6;
+        long word = ~words[i] & (-1L << from);
+        while (word == 0 && ++i < words.length) {
+            word = ~words[i];
+        }
+        return word == 0 ? limit : Math.min(limit, (i << 6) + Long.numberOfTrailingZeros(word));
+    }
+
+    /* Finds the lowest index at or after limit such that every tile from it up to from is in the set */
+    private int runStart(int from, int limit) {
+        int i = from >>> 6;
+        long word = ~words[i] & (-1L >>> (63 - (from & 63)));
+        while (word == 0 && --i >= 0) {
+            word = ~words[i];
+        }
+        return word == 0 ? limit : Math.max(limit, (i << 6) + 64 - Long.numberOfLeadingZeros(word));
+    }
+
+    /* Finds the first index at or after from, before to, which is in set but not in this bitboard, or -1 */
+    private int nextUnreached(long[] set, int from, int to) {
+        if (from >= to) {
+            return -1;
+        }
+        int i = from >>> 6;
+        int last = (to - 1) >>> 6;
+        long word = set[i] & ~words[i] & (-1L << from);
+        while (word == 0) {
+            if (++i > last) {
+                return -1;
+            }
+            word = set[i] & ~words[i];
+        }
+        int index = (i << 6) + Long.numberOfTrailingZeros(word);
+        return index < to ? index : -1;
+    }
+
+    /* Adds the tiles from index from up to but excluding to, a whole word at a time */
+    private void setRange(int from, int to) {
+        int first = from >>> 6;
+        int last = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+        if (first == last) {
+            words[first] |= firstMask & lastMask;
+            return;
+        }
+        words[first] |= firstMask;
+        for (int i = first + 1; i < last; i++) {
+            words[i] = -1L;
+        }
+        words[last] |= lastMask;
+    }
+
+    private int index(Position position) {
+        int x = position.getX();
+        int y = position.getY();
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            throw new IndexOutOfBoundsException("position (" + x + ", " + y + ") is outside the board");
+        }
+        return y * width + x;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index " + index + " is outside the board");
+        }
+    }
+
+    private void checkSameBoard(Bitboard other) {
+        if (other.width != width || other.height != height) {
+            throw new IllegalArgumentException("bitboards cover boards of different dimensions");
+        }
+    }
+
+    /**
+     * Checks if two bitboards cover boards of the same dimensions and hold the same tiles.
+     *
+     * @param other object to compare against.
+     * @return true if other is an equal bitboard, false otherwise.
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof Bitboard)) {
+            return false;
+        }
+        Bitboard bitboard = (Bitboard) other;
+        return width == bitboard.width && height == bitboard.height && Arrays.equals(words, bitboard.words);
+    }
+
+    /**
+     * Calculates the hash of the bitboard.
+     *
+     * @return hash of this bitboard.
+     */
+    @Override
+    public int hashCode() {
+        return 31 * (31 * width + height) + Arrays.hashCode(words);
+    }
+}
@@ -0,0 +1,272 @@
+package pacman.board;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * BoardFile - a PacmanBoard stored in a compact binary file and opened by memory mapping it.
+ * The file starts with a HEADER_SIZE byte header followed by one byte per tile holding the BoardItem ordinal,
+ * tiles laid out like a TileStore ( index y * width + x ). The header holds, as big endian ints:
+ * - MAGIC
+ * - VERSION
+ * - width
+ * - height
+ * - index of the pacman spawn, or -1
+ * - index of the ghost spawn, or -1
+ * - DIRTY if the tiles may have changed since the header was written, otherwise CLEAN
+ * - the number of BoardItems followed by the count of tiles holding each BoardItem, in ordinal order
+ * and is zero padded to HEADER_SIZE bytes. The header is marked dirty on disk before the first write to the tiles
+ * and clean again by flush(). Opening a clean file trusts the spawns and counts in its header, so its tiles are
+ * only paged in as the board touches them. A dirty file, left by a crash while the operating system may have
+ * written changed tiles back without their header, is scanned once to reject unknown tiles and recount.
+ */
+public class BoardFile implements Closeable {
+
+    /** The first four bytes of a board file, "PACB". */
+    public static final int MAGIC = 0x50414342;
+    /** The version of the format written by this class. */
+    public static final int VERSION = 2;
+    /** The size of the header in bytes, tiles start at this offset. */
+    public static final int HEADER_SIZE = 64;
+
+    /* Values of the header field telling if the header matches the tiles */
+    private static final int CLEAN = 0;
+    private static final int DIRTY = 1;
+    private static final int STATE_OFFSET = 24;
+
+    /* Size of the buffer used to stream tiles when writing or scanning a board */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final MappedTileStore store;
+    private final PacmanBoard board;
+
+    private BoardFile(FileChannel channel, MappedByteBuffer header, MappedTileStore store, PacmanBoard board) {
+        this.channel = channel;
+        this.header = header;
+        this.store = store;
+        this.board = board;
+    }
+
+    /**
+     * Writes a board to a file in the binary board format, replacing the file if it exists.
+     *
+     * @param board the board to write.
+     * @param path the file to write to.
+     * @throws IOException if the file cannot be written.
+     * @throws NullPointerException if board or path is null.
+     */
+    public static void write(PacmanBoard board, Path path) throws IOException, NullPointerException {
+        try (FileChannel out = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            putHeader(buffer, board);
+            buffer.position(HEADER_SIZE);
+            int size = board.getWidth() * board.getHeight();
+            for (int i = 0; i < size; i++) {
+                if (!buffer.hasRemaining()) {
+                    drain(buffer, out);
+                }
+                buffer.put(board.ordinalAt(i));
+            }
+            drain(buffer, out);
+        }
+    }
+
+    /**
+     * Opens a board file for reading and writing. Changes to the returned board are written to the file by flush()
+     * and close(), the operating system may also write them back earlier.
+     *
+     * @param path the board file to open.
+     * @return the opened board file.
+     * @throws IOException if the file cannot be opened or is not a valid board file.
+     */
+    public static BoardFile open(Path path) throws IOException {
+        return open(path, false);
+    }
+
+    /**
+     * Opens a board file for reading only. Writing to the returned board throws a ReadOnlyBufferException.
+     *
+     * @param path the board file to open.
+     * @return the opened board file.
+     * @throws IOException if the file cannot be opened or is not a valid board file.
+     */
+    public static BoardFile openReadOnly(Path path) throws IOException {
+        return open(path, true);
+    }
+
+    private static BoardFile open(Path path, boolean readOnly) throws IOException {
+        FileChannel channel = readOnly
+                ? FileChannel.open(path, StandardOpenOption.READ)
+                : FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException("not a board file, too short: " + path);
+            }
+            MappedByteBuffer header = channel.map(
+                    readOnly ? FileChannel.MapMode.READ_ONLY : FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+            if (header.getInt(0) != MAGIC) {
+                throw new IOException("not a board file, bad magic: " + path);
+            }
+            if (header.getInt(4) != VERSION) {
+                throw new IOException("unsupported board file version " + header.getInt(4) + ": " + path);
+            }
+            int width = header.getInt(8);
+            int height = header.getInt(12);
+            if (width < 1 || height < 1 || (long) width * height > Integer.MAX_VALUE
+                    || channel.size() != HEADER_SIZE + (long) width * height) {
+                throw new IOException("corrupt board file, size does not match " + width + "x" + height + ": " + path);
+            }
+            int size = width * height;
+            int pacmanSpawn = header.getInt(16);
+            int ghostSpawn = header.getInt(20);
+            if (pacmanSpawn < -1 || pacmanSpawn >= size || ghostSpawn < -1 || ghostSpawn >= size) {
+                throw new IOException("corrupt board file, spawn outside the board: " + path);
+            }
+            int state = header.getInt(STATE_OFFSET);
+            if (state != CLEAN && state != DIRTY) {
+                throw new IOException("corrupt board file, unknown state " + state + ": " + path);
+            }
+            if (header.getInt(STATE_OFFSET + 4) != BoardItem.values().length) {
+                throw new IOException("corrupt board file, unexpected item count: " + path);
+            }
+            int[] counts = new int[BoardItem.values().length];
+            if (state == DIRTY) {
+                int[] spawns = scanTiles(channel, size, counts, path);
+                pacmanSpawn = spawns[0];
+                ghostSpawn = spawns[1];
+            } else {
+                long total = 0;
+                for (int i = 0; i < counts.length; i++) {
+                    counts[i] = header.getInt(STATE_OFFSET + 8 + 4 * i);
+                    if (counts[i] < 0) {
+                        throw new IOException("corrupt board file, negative item count: " + path);
+                    }
+                    total += counts[i];
+                }
+                if (total != size) {
+                    throw new IOException("corrupt board file, item counts do not add up to the board: " + path);
+                }
+            }
+            // The header must be dirty on disk before any tile changes, in case only the tiles are written back
+            Runnable firstWrite = readOnly ? null : () -> {
+                header.putInt(STATE_OFFSET, DIRTY);
+                header.force();
+            };
+            MappedTileStore store = new MappedTileStore(channel, HEADER_SIZE, size, readOnly, firstWrite);
+            PacmanBoard board = new PacmanBoard(width, height, store, pacmanSpawn, ghostSpawn, counts);
+            return new BoardFile(channel, header, store, board);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the board backed by this file.
+     *
+     * @return the board backed by this file.
+     */
+    public PacmanBoard getBoard() {
+        return board;
+    }
+
+    /**
+     * Writes every change made to the board, and its spawns and counts, back to the file.
+     *
+     * @throws IOException if the file cannot be written.
+     */
+    public void flush() throws IOException {
+        if (header.isReadOnly()) {
+            return;
+        }
+        // The tiles must be on disk before the header saying it matches them
+        store.flush();
+        putHeader(header.duplicate(), board);
+        header.force();
+    }
+
+    /**
+     * Flushes the board and closes the file. The board must not be used after the file is closed.
+     *
+     * @throws IOException if the file cannot be written or closed.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /* Writes the header for board at the start of buffer, leaving the buffer positioned after the header fields */
+    private static void putHeader(ByteBuffer buffer, PacmanBoard board) {
+        int[] counts = board.itemCounts();
+        buffer.position(0);
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putInt(board.getWidth());
+        buffer.putInt(board.getHeight());
+        buffer.putInt(board.pacmanSpawnIndex());
+        buffer.putInt(board.ghostSpawnIndex());
+        buffer.putInt(CLEAN);
+        buffer.putInt(counts.length);
+        for (int count : counts) {
+            buffer.putInt(count);
+        }
+        while (buffer.position() < HEADER_SIZE) {
+            buffer.put((byte) 0);
+        }
+    }
+
+    /* Counts the tiles holding each BoardItem into counts and returns the index of the first pacman and ghost
+     * spawn, or -1, failing on a tile which does not hold a BoardItem ordinal */
+    private static int[] scanTiles(FileChannel channel, int size, int[] counts, Path path) throws IOException {
+        int[] spawns = {-1, -1};
+        int pacmanOrdinal = BoardItem.PACMAN_SPAWN.ordinal();
+        int ghostOrdinal = BoardItem.GHOST_SPAWN.ordinal();
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        int index = 0;
+        while (index < size) {
+            buffer.clear();
+            buffer.limit(Math.min(buffer.capacity(), size - index));
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, HEADER_SIZE + (long) index + buffer.position()) < 0) {
+                    throw new IOException("corrupt board file, tiles end early: " + path);
+                }
+            }
+            byte[] tiles = buffer.array();
+            for (int i = 0; i < buffer.limit(); i++, index++) {
+                int ordinal = tiles[i] & 0xFF;
+                if (ordinal >= counts.length) {
+                    throw new IOException("corrupt board file, unknown tile " + ordinal + " at " + index + ": "
+                            + path);
+                }
+                counts[ordinal]++;
+                if (ordinal == pacmanOrdinal && spawns[0] < 0) {
+                    spawns[0] = index;
+                } else if (ordinal == ghostOrdinal && spawns[1] < 0) {
+                    spawns[1] = index;
+                }
+            }
+        }
+        return spawns;
+    }
+
+    /* Writes everything buffered so far to the channel and clears the buffer */
+    private static void drain(ByteBuffer buffer, FileChannel out) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        buffer.clear();
+    }
+}
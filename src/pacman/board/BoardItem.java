@@ -13,6 +13,9 @@ public enum BoardItem {
     PACMAN_SPAWN('P', 0, true),
     WALL('X', 0, false);
 
+    /* Cached values() so ordinal lookups do not allocate */
+    private static final BoardItem[] ITEMS = values();
+
     /* Associated characteristics */
     private char character;
     private int score;
@@ -85,4 +88,15 @@ public enum BoardItem {
         }
     }
 
+    /**
+     * Returns the BoardItem with the provided ordinal, as stored by a TileStore.
+     *
+     * @param ordinal the ordinal of the BoardItem.
+     * @return the BoardItem with the given ordinal.
+     * @throws IndexOutOfBoundsException if no BoardItem has the given ordinal.
+     */
+    public static BoardItem fromOrdinal(int ordinal) throws IndexOutOfBoundsException {
+        return ITEMS[ordinal];
+    }
+
 }
@@ -0,0 +1,66 @@
+package pacman.board;
+
+/**
+ * BoardLayers - a snapshot of a PacmanBoard as one Bitboard per BoardItem.
+ * The layers are built with a single pass over the board and do not follow later changes to it.
+ */
+public class BoardLayers {
+
+    private final Bitboard[] layers;
+    private final Bitboard pathable;
+
+    private BoardLayers(Bitboard[] layers, Bitboard pathable) {
+        this.layers = layers;
+        this.pathable = pathable;
+    }
+
+    /**
+     * Builds the layers of a board.
+     *
+     * @param board the board to take a snapshot of.
+     * @return the layers of the board.
+     * @throws NullPointerException if board is null.
+     */
+    public static BoardLayers of(PacmanBoard board) throws NullPointerException {
+        int width = board.getWidth();
+        int height = board.getHeight();
+        BoardItem[] items = BoardItem.values();
+        Bitboard[] layers = new Bitboard[items.length];
+        for (int i = 0; i < items.length; i++) {
+            layers[i] = new Bitboard(width, height);
+        }
+        int size = width * height;
+        for (int i = 0; i < size; i++) {
+            layers[board.ordinalAt(i)].set(i);
+        }
+        Bitboard pathable = new Bitboard(width, height);
+        for (BoardItem item : items) {
+            if (item.getPathable()) {
+                pathable.or(layers[item.ordinal()]);
+            }
+        }
+        return new BoardLayers(layers, pathable);
+    }
+
+    /**
+     * Gets the tiles holding the given item. The returned bitboard is shared, use Bitboard.copy()
+     * before combining it with other layers.
+     *
+     * @param item the item to get the layer of.
+     * @return the tiles holding item.
+     * @throws NullPointerException if item is null.
+     */
+    public Bitboard get(BoardItem item) throws NullPointerException {
+        return layers[item.ordinal()];
+    }
+
+    /**
+     * Gets the tiles holding a pathable item. The returned bitboard is shared, use Bitboard.copy()
+     * before combining it with other layers.
+     *
+     * @return the pathable tiles.
+     */
+    public Bitboard pathable() {
+        return pathable;
+    }
+}
@@ -0,0 +1,172 @@
+package pacman.board;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * BoardTextCodec - reads and writes PacmanBoards as text grids of BoardItem characters.
+ * Each line of the text is one row of the board and each character one tile, e.g. a 3x3 default board is:
+ * <pre>
+ * XXX
+ * X0X
+ * XXX
+ * </pre>
+ * Lines end with '\n', a '\r' before it is ignored and the last line may omit it. Every row must be the same width.
+ * Text is streamed through a single reusable buffer straight into the tile ordinals, no String is built for a line.
+ * A codec holds its buffer between calls, so one codec can load many boards but must not be shared between threads.
+ */
+public class BoardTextCodec {
+
+    /* Size of the reusable buffer */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /* Maps an ASCII character to the ordinal of its BoardItem, or -1 if it is not a BoardItem character */
+    private static final byte[] ORDINALS = new byte[128];
+    /* Maps a BoardItem ordinal to its character */
+    private static final byte[] CHARACTERS = new byte[BoardItem.values().length];
+
+    static {
+        Arrays.fill(ORDINALS, (byte) -1);
+        for (BoardItem item : BoardItem.values()) {
+            ORDINALS[item.getChar()] = (byte) item.ordinal();
+            CHARACTERS[item.ordinal()] = (byte) item.getChar();
+        }
+    }
+
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    /**
+     * Reads a board from a text file.
+     *
+     * @param path the file to read.
+     * @return the board held by the file.
+     * @throws IOException if the file cannot be read or is not a valid board.
+     */
+    public PacmanBoard read(Path path) throws IOException {
+        try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ)) {
+            return read(in);
+        }
+    }
+
+    /**
+     * Reads a board from a channel until the end of the stream.
+     *
+     * @param in the channel to read from.
+     * @return the board read from the channel.
+     * @throws IOException if the channel cannot be read or does not hold a valid board.
+     */
+    public PacmanBoard read(ReadableByteChannel in) throws IOException {
+        // A seekable channel tells us an upper bound on the number of tiles up front
+        long expected = in instanceof SeekableByteChannel ? ((SeekableByteChannel) in).size() : BUFFER_SIZE;
+        byte[] tiles = new byte[(int) Math.max(16, Math.min(expected, Integer.MAX_VALUE - 8))];
+        int count = 0;
+        int width = -1;
+        int column = 0;
+        int line = 1;
+        buffer.clear();
+        while (in.read(buffer) != -1) {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                byte character = buffer.get();
+                if (character == '\n') {
+                    width = endRow(width, column, line++);
+                    column = 0;
+                } else if (character != '\r') {
+                    byte ordinal = character >= 0 ? ORDINALS[character] : -1;
+                    if (ordinal < 0) {
+                        throw new IOException("invalid board character '" + (char) (character & 0xff)
+                                + "' on line " + line);
+                    }
+                    if (count == tiles.length) {
+                        if (count == Integer.MAX_VALUE - 8) {
+                            throw new IOException("board is too large");
+                        }
+                        tiles = Arrays.copyOf(tiles, (int) Math.min(Integer.MAX_VALUE - 8, 2L * count));
+                    }
+                    tiles[count++] = ordinal;
+                    column++;
+                }
+            }
+            buffer.clear();
+        }
+        // The last line may not end with a new line
+        if (column > 0) {
+            width = endRow(width, column, line);
+        }
+        if (count == 0) {
+            throw new IOException("board is empty");
+        }
+        if (tiles.length != count) {
+            tiles = Arrays.copyOf(tiles, count);
+        }
+        return new PacmanBoard(width, count / width, new ByteTileStore(tiles));
+    }
+
+    /* Checks a finished row against the width of the previous rows and returns the board width */
+    private static int endRow(int width, int column, int line) throws IOException {
+        if (width >= 0 && column != width) {
+            throw new IOException("line " + line + " has " + column + " tiles, expected " + width);
+        }
+        if (column == 0) {
+            throw new IOException("line " + line + " is empty");
+        }
+        return column;
+    }
+
+    /**
+     * Writes a board to a text file, replacing the file if it exists.
+     *
+     * @param board the board to write.
+     * @param path the file to write to.
+     * @throws IOException if the file cannot be written.
+     */
+    public void write(PacmanBoard board, Path path) throws IOException {
+        try (FileChannel out = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            write(board, out);
+        }
+    }
+
+    /**
+     * Writes a board to a channel, one line per row with every line ending in '\n'.
+     *
+     * @param board the board to write.
+     * @param out the channel to write to.
+     * @throws IOException if the channel cannot be written.
+     */
+    public void write(PacmanBoard board, WritableByteChannel out) throws IOException {
+        int width = board.getWidth();
+        int height = board.getHeight();
+        buffer.clear();
+        int index = 0;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                if (!buffer.hasRemaining()) {
+                    drain(out);
+                }
+                buffer.put(CHARACTERS[board.ordinalAt(index++)]);
+            }
+            if (!buffer.hasRemaining()) {
+                drain(out);
+            }
+            buffer.put((byte) '\n');
+        }
+        drain(out);
+    }
+
+    /* Writes everything buffered so far to the channel and clears the buffer */
+    private void drain(WritableByteChannel out) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        buffer.clear();
+    }
+}
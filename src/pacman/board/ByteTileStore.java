@@ -0,0 +1,58 @@
+package pacman.board;
+
+import java.util.Arrays;
+
+/**
+ * ByteTileStore - the default TileStore, backed by a single flat byte array holding one BoardItem ordinal per tile.
+ */
+public class ByteTileStore implements TileStore {
+
+    private final byte[] tiles;
+
+    /**
+     * Creates a store with the given number of tiles, every tile holding BoardItem.NONE.
+     *
+     * @param size the number of tiles.
+     * @throws IllegalArgumentException if size is negative.
+     */
+    public ByteTileStore(int size) throws IllegalArgumentException {
+        if (size < 0) {
+            throw new IllegalArgumentException("size must not be negative: " + size);
+        }
+        tiles = new byte[size];
+        Arrays.fill(tiles, (byte) BoardItem.NONE.ordinal());
+    }
+
+    /**
+     * Creates a store which takes ownership of the given ordinal array.
+     *
+     * @param tiles the BoardItem ordinals, one per tile.
+     * @throws NullPointerException if tiles is null.
+     */
+    public ByteTileStore(byte[] tiles) throws NullPointerException {
+        if (tiles == null) {
+            throw new NullPointerException();
+        }
+        this.tiles = tiles;
+    }
+
+    @Override
+    public int size() {
+        return tiles.length;
+    }
+
+    @Override
+    public byte get(int index) {
+        return tiles[index];
+    }
+
+    @Override
+    public void set(int index, byte ordinal) {
+        tiles[index] = ordinal;
+    }
+
+    @Override
+    public TileStore copy() {
+        return new ByteTileStore(tiles.clone());
+    }
+}
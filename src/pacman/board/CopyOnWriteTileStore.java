@@ -0,0 +1,98 @@
+package pacman.board;
+
+import java.util.Arrays;
+
+/**
+ * CopyOnWriteTileStore - a TileStore split into fixed size chunks which copies share until one of them writes.
+ * Copying costs one reference per chunk, a write to a shared chunk duplicates only that chunk.
+ * A store and its copies must not be used from different threads at the same time.
+ */
+public class CopyOnWriteTileStore implements TileStore {
+
+    /* Each chunk holds 2^CHUNK_BITS tiles, 4096 tiles is one row of a 4096 wide board */
+    private static final int CHUNK_BITS = 12;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final int size;
+    private final byte[][] chunks;
+    /* owned[i] is true if chunks[i] is not shared with any other store and may be written in place */
+    private final boolean[] owned;
+
+    /**
+     * Creates a store with the given number of tiles, every tile holding BoardItem.NONE.
+     *
+     * @param size the number of tiles.
+     * @throws IllegalArgumentException if size is negative.
+     */
+    public CopyOnWriteTileStore(int size) throws IllegalArgumentException {
+        this(new ByteTileStore(size));
+    }
+
+    /**
+     * Creates a store holding a copy of the tiles of another store.
+     *
+     * @param source the store to copy the tiles from.
+     * @throws NullPointerException if source is null.
+     */
+    public CopyOnWriteTileStore(TileStore source) throws NullPointerException {
+        size = source.size();
+        int count = (int) (((long) size + CHUNK_MASK) >>> CHUNK_BITS);
+        chunks = new byte[count][];
+        owned = new boolean[count];
+        for (int i = 0; i < count; i++) {
+            int start = i << CHUNK_BITS;
+            byte[] chunk = new byte[Math.min(CHUNK_SIZE, size - start)];
+            for (int j = 0; j < chunk.length; j++) {
+                chunk[j] = source.get(start + j);
+            }
+            chunks[i] = chunk;
+            owned[i] = true;
+        }
+    }
+
+    /* Creates a store sharing every chunk of other, neither store owns any chunk afterwards */
+    private CopyOnWriteTileStore(CopyOnWriteTileStore other) {
+        size = other.size;
+        chunks = other.chunks.clone();
+        owned = new boolean[chunks.length];
+        Arrays.fill(other.owned, false);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public byte get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index " + index + " is outside the store");
+        }
+        return chunks[index >>> CHUNK_BITS][index & CHUNK_MASK];
+    }
+
+    @Override
+    public void set(int index, byte ordinal) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index " + index + " is outside the store");
+        }
+        int chunk = index >>> CHUNK_BITS;
+        // Duplicates a shared chunk before its first write
+        if (!owned[chunk]) {
+            chunks[chunk] = chunks[chunk].clone();
+            owned[chunk] = true;
+        }
+        chunks[chunk][index & CHUNK_MASK] = ordinal;
+    }
+
+    /**
+     * Creates a copy of this store which shares every chunk with this store until either of them writes to it.
+     *
+     * @return a copy of this store.
+     */
+    @Override
+    public TileStore copy() {
+        return new CopyOnWriteTileStore(this);
+    }
+}
@@ -0,0 +1,97 @@
+package pacman.board;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * MappedTileStore - a TileStore backed directly by a memory mapped region of a board file.
+ * Tiles are paged in by the operating system when first read. The file is mapped in segments so boards
+ * larger than a single mapping can be held.
+ */
+class MappedTileStore implements TileStore {
+
+    /* Each segment maps 2^SEGMENT_BITS tiles */
+    private static final int SEGMENT_BITS = 30;
+    private static final int SEGMENT_MASK = (1 << SEGMENT_BITS) - 1;
+
+    private final int size;
+    private final MappedByteBuffer[] segments;
+    private final Runnable firstWrite;
+    /* Set by the first write since the last flush */
+    private boolean written;
+
+    /**
+     * Maps the tiles of a board file.
+     *
+     * @param channel the channel of the board file, opened for reading and, unless readOnly, writing.
+     * @param offset the position of the first tile in the file.
+     * @param size the number of tiles.
+     * @param readOnly true to map the tiles read only.
+     * @param firstWrite run before the first write since the store was mapped or last flushed, or null.
+     * @throws IOException if the tiles cannot be mapped.
+     */
+    MappedTileStore(FileChannel channel, long offset, int size, boolean readOnly, Runnable firstWrite)
+    throws IOException {
+        this.size = size;
+        this.firstWrite = firstWrite;
+        int count = (int) (((long) size + SEGMENT_MASK) >>> SEGMENT_BITS);
+        segments = new MappedByteBuffer[count];
+        FileChannel.MapMode mode = readOnly ? FileChannel.MapMode.READ_ONLY : FileChannel.MapMode.READ_WRITE;
+        for (int i = 0; i < count; i++) {
+            long start = (long) i << SEGMENT_BITS;
+            long length = Math.min(1L << SEGMENT_BITS, size - start);
+            segments[i] = channel.map(mode, offset + start, length);
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public byte get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index " + index + " is outside the store");
+        }
+        return segments[index >>> SEGMENT_BITS].get(index & SEGMENT_MASK);
+    }
+
+    @Override
+    public void set(int index, byte ordinal) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index " + index + " is outside the store");
+        }
+        if (!written && firstWrite != null) {
+            firstWrite.run();
+        }
+        written = true;
+        segments[index >>> SEGMENT_BITS].put(index & SEGMENT_MASK, ordinal);
+    }
+
+    /**
+     * Creates a copy of the tiles on the heap. Changes to the copy are not written to the file.
+     *
+     * @return a heap copy of this store.
+     */
+    @Override
+    public TileStore copy() {
+        byte[] tiles = new byte[size];
+        for (int i = 0; i < segments.length; i++) {
+            // Duplicates so the bulk read does not move the shared segment's position
+            segments[i].duplicate().get(tiles, i << SEGMENT_BITS, segments[i].capacity());
+        }
+        return new ByteTileStore(tiles);
+    }
+
+    /**
+     * Writes any changed tiles back to the file.
+     */
+    void flush() {
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+        written = false;
+    }
+}
@@ -2,22 +2,45 @@ package pacman.board;
 
 import pacman.util.Position;
 
-import java.util.Map;
+import java.util.Arrays;
 
 import static pacman.board.BoardItem.*;
 /**
  * PacmanBoard - represents a pacman board containing BoardItems.
  * This board can be any size and is set out as a grid with each space containing one BoardItem.
  * A pacman board is by default surronded by BoardItem.WALL with every other space containing BoardItem.NONE.
+ * Tiles are held in a TileStore as BoardItem ordinals, the tile at ( x, y ) lives at index ( y * width + x ).
  *
  * @author Joel Foster
  * */
 public class PacmanBoard {
 
+    private static final byte WALL_ORDINAL = (byte) WALL.ordinal();
+    private static final byte NONE_ORDINAL = (byte) NONE.ordinal();
+    private static final byte BIG_DOT_SPAWN_ORDINAL = (byte) BIG_DOT_SPAWN.ordinal();
+
     private int width;
     private int height;
     private int board_size;
-    private Character[][] board;
+    private TileStore board;
+
+    /* Spawn index and item counts, kept up to date by every write. Built by a single scan the first time
+     * either is needed. */
+    private boolean indexed;
+    private int[] counts = new int[BoardItem.values().length];
+    private int pacmanSpawn = -1;
+    private int ghostSpawn = -1;
+    private Position pacmanSpawnPosition;
+    private Position ghostSpawnPosition;
+
+    /* Tiles reset() may need to restore. Every write that turns a tile into NONE or BIG_DOT_SPAWN since the
+     * last reset is recorded. While resetAll is set nothing is recorded and reset() scans the whole board. */
+    private boolean resetAll = true;
+    private int[] restorable = new int[16];
+    private int restorableCount;
+
+    /* Incremented whenever a tile changes between pathable and not pathable */
+    private int wallVersion;
 
     /**
      * Default constructor. Initialises a new pacman board by passing it its height and width.
@@ -29,13 +52,57 @@ public class PacmanBoard {
     public PacmanBoard(int width, int height) throws IllegalArgumentException {
         this.width = width;
         this.height = height;
+        board_size = boardSize(width, height);
         board = defaultBoard();
-        board_size = width * height;
+    }
+
+    /**
+     * Constructor which wraps an existing TileStore. The tiles of the store are used as they are,
+     * no walls are added around the edge.
+     *
+     * @param width the width of the pacman board.
+     * @param height the height of the pacman board.
+     * @param store the store holding width * height tiles.
+     * @throws IllegalArgumentException if the store does not hold exactly width * height tiles.
+     * @throws NullPointerException if the store is null.
+     */
+    public PacmanBoard(int width, int height, TileStore store)
+    throws IllegalArgumentException, NullPointerException {
+        if (store == null) {
+            throw new NullPointerException();
+        }
+        this.width = width;
+        this.height = height;
+        board_size = boardSize(width, height);
+        if (store.size() != board_size) {
+            throw new IllegalArgumentException("store holds " + store.size() + " tiles, expected " + board_size);
+        }
+        board = store;
+    }
+
+    /* Constructor which wraps an existing TileStore whose spawn index and item counts are already known */
+    PacmanBoard(int width, int height, TileStore store, int pacmanSpawn, int ghostSpawn, int[] counts) {
+        this(width, height, store);
+        if (counts.length != this.counts.length) {
+            throw new IllegalArgumentException("expected " + this.counts.length + " item counts");
+        }
+        this.counts = counts.clone();
+        if (pacmanSpawn >= 0) {
+            this.pacmanSpawn = pacmanSpawn;
+            pacmanSpawnPosition = position(pacmanSpawn);
+        }
+        if (ghostSpawn >= 0) {
+            this.ghostSpawn = ghostSpawn;
+            ghostSpawnPosition = position(ghostSpawn);
+        }
+        indexed = true;
     }
 
     /**
      * Constructor which takes a pre-existing Pacman Board and produces a deep copy of the provided board.
      * This copy shares the width, height and board of the old board. Changes to one board do not affect the copy.
+     * If the other board is in copy-on-write mode ( see useCopyOnWrite() ) the copy shares the tiles of the other
+     * board until one of them writes, so copying does not depend on the board area.
      *
      * @param other the pacman board to duplicate
      * @throws NullPointerException
@@ -43,30 +110,175 @@ public class PacmanBoard {
     public PacmanBoard(PacmanBoard other) throws NullPointerException {
         width = other.getWidth();
         height = other.getHeight();
-        board = other.getBoardArray();
+        board_size = other.board_size;
+        board = other.board.copy();
+        indexed = other.indexed;
+        counts = other.counts.clone();
+        pacmanSpawn = other.pacmanSpawn;
+        ghostSpawn = other.ghostSpawn;
+        pacmanSpawnPosition = other.pacmanSpawnPosition;
+        ghostSpawnPosition = other.ghostSpawnPosition;
+        resetAll = other.resetAll;
+        restorable = Arrays.copyOf(other.restorable, Math.max(16, other.restorableCount));
+        restorableCount = other.restorableCount;
+        wallVersion = other.wallVersion;
     }
 
-    private Character[][] defaultBoard() {
-        // Initialises a new board array.
-        Character[][] newboard = new Character[height][width];
-        // Iterates over all non edge array elements setting them to BoardItem.NONE
-        for (int i = 1; i < height-1; i++) {
-            for (int j = 1; j < width-1; j++) {
-                newboard[i][j] = '0';
-            }
+    /**
+     * Switches this board into copy-on-write mode. Copies of a board in this mode share chunks of tiles with the
+     * board and with each other, a write duplicates only the chunk it touches. Copies stay in this mode.
+     * Switching copies the tiles once, calling this on a board already in this mode does nothing.
+     */
+    public void useCopyOnWrite() {
+        if (!(board instanceof CopyOnWriteTileStore)) {
+            board = new CopyOnWriteTileStore(board);
+        }
+    }
+
+    /* Checks the dimensions of a board and returns its number of tiles */
+    private static int boardSize(int width, int height) throws IllegalArgumentException {
+        if (width < 1 || height < 1) {
+            throw new IllegalArgumentException("board dimensions must be positive: " + width + "x" + height);
+        }
+        try {
+            return Math.multiplyExact(width, height);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("board is too large: " + width + "x" + height);
         }
-        // Iterates over all edge array elements setting them to BoardItem.WALL. Iteration follows 'L' form.
+    }
+
+    private TileStore defaultBoard() {
+        // Initialises a new store, every tile starts as BoardItem.NONE.
+        TileStore newboard = new ByteTileStore(board_size);
+        // Iterates over all edge tiles setting them to BoardItem.WALL. Iteration follows 'L' form.
         for (int i = 0; i < height; i++) {
-            newboard[i][width-1] = 'X';
-            newboard[i][0] = 'X';
+            newboard.set(i * width + width - 1, WALL_ORDINAL);
+            newboard.set(i * width, WALL_ORDINAL);
         }
         for (int i = 0; i < width; i++) {
-            newboard[height-1][i] = 'X';
-            newboard[0][i] = 'X';
+            newboard.set((height - 1) * width + i, WALL_ORDINAL);
+            newboard.set(i, WALL_ORDINAL);
         }
         return newboard;
     }
 
+    /* Converts a position to its index in the tile store */
+    private int index(Position position) throws IndexOutOfBoundsException, NullPointerException {
+        int x = position.getX();
+        int y = position.getY();
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            throw new IndexOutOfBoundsException("position (" + x + ", " + y + ") is outside the board");
+        }
+        return y * width + x;
+    }
+
+    /* Reads the BoardItem ordinal at an index without bounds checks beyond the store's own */
+    byte ordinalAt(int index) {
+        return board.get(index);
+    }
+
+    /* Gets the index of the pacman spawn, or -1 if there is none */
+    int pacmanSpawnIndex() {
+        ensureIndexed();
+        return pacmanSpawn;
+    }
+
+    /* Gets the index of the ghost spawn, or -1 if there is none */
+    int ghostSpawnIndex() {
+        ensureIndexed();
+        return ghostSpawn;
+    }
+
+    /* Gets a copy of the item counts, indexed by BoardItem ordinal */
+    int[] itemCounts() {
+        ensureIndexed();
+        return counts.clone();
+    }
+
+    /* Converts an index in the tile store back to a position */
+    private Position position(int index) {
+        return new Position(index % width, index / width);
+    }
+
+    /* Builds the spawn index and item counts with a single pass over the store, keeping the first spawn of
+     * each kind found */
+    private void ensureIndexed() {
+        if (indexed) {
+            return;
+        }
+        byte pacmanOrdinal = (byte) PACMAN_SPAWN.ordinal();
+        byte ghostOrdinal = (byte) GHOST_SPAWN.ordinal();
+        for (int i = 0; i < board_size; i++) {
+            byte ordinal = board.get(i);
+            counts[ordinal]++;
+            if (ordinal == pacmanOrdinal && pacmanSpawn < 0) {
+                pacmanSpawn = i;
+                pacmanSpawnPosition = position(i);
+            } else if (ordinal == ghostOrdinal && ghostSpawn < 0) {
+                ghostSpawn = i;
+                ghostSpawnPosition = position(i);
+            }
+        }
+        indexed = true;
+    }
+
+    /* Writes an item to the store and updates the spawn index and counts, the index must already be built */
+    private void write(int index, BoardItem item) {
+        byte old = board.get(index);
+        board.set(index, (byte) item.ordinal());
+        counts[old]--;
+        counts[item.ordinal()]++;
+        if (BoardItem.fromOrdinal(old).getPathable() != item.getPathable()) {
+            wallVersion++;
+        }
+        // Records tiles that have just become restorable
+        if ((item == NONE || item == BIG_DOT_SPAWN) && old != NONE_ORDINAL && old != BIG_DOT_SPAWN_ORDINAL) {
+            markRestorable(index);
+        }
+        // Forgets a spawn that has just been overwritten
+        if (index == pacmanSpawn) {
+            pacmanSpawn = -1;
+            pacmanSpawnPosition = null;
+        } else if (index == ghostSpawn) {
+            ghostSpawn = -1;
+            ghostSpawnPosition = null;
+        }
+        if (item == PACMAN_SPAWN) {
+            pacmanSpawn = index;
+            pacmanSpawnPosition = position(index);
+        } else if (item == GHOST_SPAWN) {
+            ghostSpawn = index;
+            ghostSpawnPosition = position(index);
+        }
+    }
+
+    /* Adds a tile to the restorable list, falling back to a full reset once the list outgrows the board */
+    private void markRestorable(int index) {
+        if (resetAll) {
+            return;
+        }
+        if (restorableCount == board_size) {
+            resetAll = true;
+            restorable = new int[16];
+            restorableCount = 0;
+            return;
+        }
+        if (restorableCount == restorable.length) {
+            restorable = Arrays.copyOf(restorable, (int) Math.min(board_size, 2L * restorable.length));
+        }
+        restorable[restorableCount++] = index;
+    }
+
+    /* Turns a NONE tile into a DOT and a BIG_DOT_SPAWN tile into a BIG_DOT, leaving any other tile alone */
+    private void restore(int index) {
+        byte ordinal = board.get(index);
+        if (ordinal == NONE_ORDINAL) {
+            write(index, DOT);
+        } else if (ordinal == BIG_DOT_SPAWN_ORDINAL) {
+            write(index, BIG_DOT);
+        }
+    }
+
     /**
      * Tries to eat a dot off of the board and returns the item it tried to eat.
      * If a BoardItem.DOT is eaten it is replaced with a BoardItem.NONE.
@@ -100,7 +312,7 @@ public class PacmanBoard {
         if (position == null) {
             throw new NullPointerException();
         }
-        return BoardItem.getItem(board[position.getX()][position.getY()]);
+        return BoardItem.fromOrdinal(board.get(index(position)));
     }
 
     /**
@@ -119,7 +331,8 @@ public class PacmanBoard {
      * @requires board to contain 0 or 1 GHOST_SPAWN's.
      */
     public Position getGhostSpawn() {
-        return getBoardItemLocation(GHOST_SPAWN);
+        ensureIndexed();
+        return ghostSpawnPosition;
     }
 
     /**
@@ -129,21 +342,19 @@ public class PacmanBoard {
      * @requires board to contain 0 or 1 PACMAN_SPAWN's.
      */
     public Position getPacmanSpawn() {
-        return getBoardItemLocation(PACMAN_SPAWN);
+        ensureIndexed();
+        return pacmanSpawnPosition;
     }
 
-    private Position getBoardItemLocation(BoardItem item) {
-        // Iterates over the entire board
-        for (int i = 0; i < width; i++) {
-            for (int j = 0; j < height; j++) {
-                Position board_position = new Position(i, j);
-                // Determines if current selected position contains the item and returns the position if it does.
-                if (getEntry(board_position) == item) {
-                    return board_position;
-                }
-            }
-        }
-        return null;
+    /**
+     * Gets the wall version of the board. The version changes whenever setEntry turns a pathable tile into a
+     * tile that is not pathable ( a WALL ) or back, so anything derived from the layout of the walls can tell
+     * when it is out of date.
+     *
+     * @return the current wall version.
+     */
+    public int getWallVersion() {
+        return wallVersion;
     }
 
     /**
@@ -161,17 +372,20 @@ public class PacmanBoard {
      * @return true if the board does not contain any DOT's or BIG_DOT's, false otherwise.
      */
     public boolean isEmpty() {
-        // Iterates over the entire board
-        for (int i = 0; i < getHeight(); i++) {
-            for (int j = 0; j < getWidth(); j++) {
-                Position board_position = new Position(i, j);
-                // Checks if current position contains BoardItem.DOT or BoardItem.BIG_DOT
-                if (getEntry(board_position) == DOT || getEntry(board_position) == BIG_DOT) {
-                    return false;
-                }
-            }
-        }
-        return true;
+        ensureIndexed();
+        return counts[DOT.ordinal()] == 0 && counts[BIG_DOT.ordinal()] == 0;
+    }
+
+    /**
+     * Counts how many tiles of the board hold the given item.
+     *
+     * @param item the BoardItem to count.
+     * @return the number of tiles holding item.
+     * @throws NullPointerException if item is null.
+     */
+    public int countOf(BoardItem item) throws NullPointerException {
+        ensureIndexed();
+        return counts[item.ordinal()];
     }
 
     /**
@@ -180,17 +394,20 @@ public class PacmanBoard {
      * Leaves walls, pacman spawns and ghost spawns intact.
      */
     public void reset() {
-        // Iterates over the entire board
-        for (int i = 0; i < getHeight(); i++) {
-            for (int j = 0; j < getWidth(); j++) {
-                Position board_position = new Position(i, j);
-                if (getEntry(board_position) == NONE) {
-                    setEntry(board_position, DOT);
-                } else if (getEntry(board_position) == BIG_DOT_SPAWN) {
-                    setEntry(board_position, BIG_DOT);
-                }
+        ensureIndexed();
+        if (resetAll) {
+            // Nothing is known about which tiles changed, so iterates over the entire board
+            for (int i = 0; i < board_size; i++) {
+                restore(i);
+            }
+            resetAll = false;
+        } else {
+            // Only visits the tiles recorded since the last reset
+            for (int i = 0; i < restorableCount; i++) {
+                restore(restorable[i]);
             }
         }
+        restorableCount = 0;
     }
 
     /**
@@ -207,36 +424,18 @@ public class PacmanBoard {
      */
     public void setEntry(Position position, BoardItem item)
     throws IndexOutOfBoundsException, NullPointerException {
-        if (item == PACMAN_SPAWN) {
-            Position pacspawn = getPacmanSpawn();
-            // Removes any PacmanSpawns if any currently exist
-            if (pacspawn != null) {
-                this.setEntry(pacspawn, NONE);
-            }
+        int index = index(position);
+        if (item == null) {
+            throw new NullPointerException();
         }
-        if (item == GHOST_SPAWN) {
-            Position ghost_spawn = getGhostSpawn();
-            // Removes any GhostSpawns if any currently exist
-            if (ghost_spawn != null) {
-                this.setEntry(ghost_spawn, NONE);
-            }
+        ensureIndexed();
+        // Removes the current spawn of the same kind if one exists
+        if (item == PACMAN_SPAWN && pacmanSpawn >= 0) {
+            write(pacmanSpawn, NONE);
         }
-        // Converts BoardItem into character representative and places it on the board.
-        if (item != null) {
-            board[position.getX()][position.getY()] = convertEntry(item);
-        } else {
-            throw new NullPointerException();
+        if (item == GHOST_SPAWN && ghostSpawn >= 0) {
+            write(ghostSpawn, NONE);
         }
-    }
-    /* Converts entry of BoardItem to its representative character */
-    private static char convertEntry(BoardItem item) {
-        final Map<BoardItem, Character> DICT = Map.of(NONE, '0', WALL, 'X', DOT, '1', BIG_DOT, 'B',
-                BIG_DOT_SPAWN, 'b', GHOST_SPAWN, '$', PACMAN_SPAWN, 'P');
-        return DICT.get(item);
-    }
-
-    /* Returns a clone of the current board */
-    private Character[][] getBoardArray() {
-        return board.clone();
+        write(index, item);
     }
 }
@@ -0,0 +1,41 @@
+package pacman.board;
+
+/**
+ * TileStore - the storage engine behind a PacmanBoard.
+ * A tile store holds one BoardItem ordinal per tile, addressed by a flat index of ( y * width + x ).
+ * The store knows nothing about walls, spawns or dots, it only reads and writes ordinals.
+ */
+public interface TileStore {
+
+    /**
+     * Gets the number of tiles held by this store.
+     *
+     * @return the number of tiles.
+     */
+    int size();
+
+    /**
+     * Gets the BoardItem ordinal stored at the given index.
+     *
+     * @param index the flat index of the tile.
+     * @return the ordinal of the BoardItem at index.
+     * @throws IndexOutOfBoundsException
+     */
+    byte get(int index) throws IndexOutOfBoundsException;
+
+    /**
+     * Stores a BoardItem ordinal at the given index.
+     *
+     * @param index the flat index of the tile.
+     * @param ordinal the ordinal of the BoardItem to store.
+     * @throws IndexOutOfBoundsException
+     */
+    void set(int index, byte ordinal) throws IndexOutOfBoundsException;
+
+    /**
+     * Creates a copy of this store. Changes to one store do not affect the copy.
+     *
+     * @return an independent copy of this store.
+     */
+    TileStore copy();
+}
@@ -13,6 +13,10 @@ public abstract class Entity implements Moveable {
     private Position position;
     private Direction direction;
 
+    /* The spatial index tracking this entity and the entity's id in it, if it is in one */
+    SpatialIndex spatialIndex;
+    int spatialId = -1;
+
     /**
      * Creates an entity that is at the given position facing in the given direction.
      * If the position is null then the position will be the same as the default position ( 0, 0 ).
@@ -79,6 +83,14 @@ public abstract class Entity implements Moveable {
     public void setPosition(Position position) {
         if (position != null) {
             this.position = position;
+            moved();
+        }
+    }
+
+    /* Tells the spatial index tracking this entity, if any, that its position has changed */
+    void moved() {
+        if (spatialIndex != null) {
+            spatialIndex.moved(this);
         }
     }
 }
@@ -0,0 +1,563 @@
+package pacman.game;
+
+import pacman.ghost.Blinky;
+import pacman.ghost.Clyde;
+import pacman.ghost.Ghost;
+import pacman.ghost.GhostType;
+import pacman.ghost.Inky;
+import pacman.ghost.Phase;
+import pacman.ghost.Pinky;
+import pacman.hunter.Hunter;
+import pacman.hunter.HunterType;
+import pacman.util.Direction;
+import pacman.util.Position;
+
+import java.util.Arrays;
+
+/**
+ * EntityStore - holds the state of many ghosts and hunters in parallel primitive arrays, one slot per entity.
+ * Positions, directions, phases, durations and alive flags of consecutive slots sit next to each other in memory,
+ * so a tick loop walking the slots in order reads them sequentially.
+ * For code written against the Ghost and Hunter classes, ghost() and hunter() return views of a slot which
+ * read and write the arrays directly. A store must not be shared between threads.
+ */
+public class EntityStore {
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final Phase[] PHASES = Phase.values();
+    private static final GhostType[] GHOST_TYPES = GhostType.values();
+    private static final HunterType[] HUNTER_TYPES = HunterType.values();
+    private static final String[] GHOST_COLOURS = new String[GHOST_TYPES.length];
+
+    static {
+        for (Ghost ghost : new Ghost[] {new Blinky(), new Clyde(), new Inky(), new Pinky()}) {
+            GHOST_COLOURS[ghost.getType().ordinal()] = ghost.getColour();
+        }
+    }
+
+    private int size;
+    private int[] xs;
+    private int[] ys;
+    private byte[] directions;
+    private byte[] phases;
+    /* The phase duration of a ghost, the remaining special duration of a hunter */
+    private int[] durations;
+    private boolean[] alive;
+    private boolean[] hunters;
+    private boolean[] specialUsed;
+    /* GhostType ordinal of a ghost, HunterType ordinal of a hunter */
+    private byte[] types;
+    private Entity[] views;
+
+    /**
+     * Creates an empty store.
+     *
+     * @param initialCapacity the number of entities the store can hold before it has to grow.
+     * @throws IllegalArgumentException if initialCapacity is negative.
+     */
+    public EntityStore(int initialCapacity) throws IllegalArgumentException {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("initialCapacity must not be negative: " + initialCapacity);
+        }
+        int capacity = Math.max(initialCapacity, 4);
+        xs = new int[capacity];
+        ys = new int[capacity];
+        directions = new byte[capacity];
+        phases = new byte[capacity];
+        durations = new int[capacity];
+        alive = new boolean[capacity];
+        hunters = new boolean[capacity];
+        specialUsed = new boolean[capacity];
+        types = new byte[capacity];
+        views = new Entity[capacity];
+    }
+
+    private void grow(int capacity) {
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+        directions = Arrays.copyOf(directions, capacity);
+        phases = Arrays.copyOf(phases, capacity);
+        durations = Arrays.copyOf(durations, capacity);
+        alive = Arrays.copyOf(alive, capacity);
+        hunters = Arrays.copyOf(hunters, capacity);
+        specialUsed = Arrays.copyOf(specialUsed, capacity);
+        types = Arrays.copyOf(types, capacity);
+        views = Arrays.copyOf(views, capacity);
+    }
+
+    private int addSlot() {
+        if (size == xs.length) {
+            grow(xs.length * 2);
+        }
+        return size++;
+    }
+
+    /**
+     * Adds a ghost which is alive, at ( 0, 0 ), facing up and in the SCATTER phase, as a new Ghost would be.
+     *
+     * @param type the type of the ghost.
+     * @return the slot of the ghost.
+     * @throws NullPointerException if type is null.
+     */
+    public int addGhost(GhostType type) throws NullPointerException {
+        int slot = addSlot();
+        types[slot] = (byte) type.ordinal();
+        hunters[slot] = false;
+        resetGhost(slot);
+        return slot;
+    }
+
+    /**
+     * Adds a hunter which is alive, at ( 0, 0 ), facing up and has not used its special, as a new Hunter would be.
+     *
+     * @param type the type of the hunter.
+     * @return the slot of the hunter.
+     * @throws NullPointerException if type is null.
+     */
+    public int addHunter(HunterType type) throws NullPointerException {
+        int slot = addSlot();
+        types[slot] = (byte) type.ordinal();
+        hunters[slot] = true;
+        resetHunter(slot);
+        return slot;
+    }
+
+    /**
+     * Gets the number of entities in the store, slots run from 0 to size() - 1.
+     *
+     * @return the number of entities.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if a slot holds a hunter.
+     *
+     * @param slot the slot to check.
+     * @return true if the slot holds a hunter, false if it holds a ghost.
+     * @throws IndexOutOfBoundsException if the slot is not in use.
+     */
+    public boolean isHunter(int slot) throws IndexOutOfBoundsException {
+        return hunters[check(slot)];
+    }
+
+    /**
+     * Gets the x coordinate of an entity.
+     *
+     * @param slot the slot of the entity.
+     * @return the x coordinate.
+     * @throws IndexOutOfBoundsException if the slot is not in use.
+     */
+    public int getX(int slot) throws IndexOutOfBoundsException {
+        return xs[check(slot)];
+    }
+
+    /**
+     * Gets the y coordinate of an entity.
+     *
+     * @param slot the slot of the entity.
+     * @return the y coordinate.
+     * @throws IndexOutOfBoundsException if the slot is not in use.
+     */
+    public int getY(int slot) throws IndexOutOfBoundsException {
+        return ys[check(slot)];
+    }
+
+    /**
+     * Moves an entity.
+     *
+     * @param slot the slot of the entity.
+     * @param x the new x coordinate.
+     * @param y the new y coordinate.
+     * @throws IndexOutOfBoundsException if the slot is not in use.
+     */
+    public void setPosition(int slot, int x, int y) throws IndexOutOfBoundsException {
+        xs[check(slot)] = x;
+        ys[slot] = y;
+        // Keeps a spatial index tracking the slot's view up to date
+        if (views[slot] != null) {
+            views[slot].moved();
+        }
+    }
+
+    /**
+     * Gets the direction an entity is facing.
+     *
+     * @param slot the slot of the entity.
+     * @return the direction of the entity.
+     * @throws IndexOutOfBoundsException if the slot is not in use.
+     */
+    public Direction getDirection(int slot) throws IndexOutOfBoundsException {
+        return DIRECTIONS[directions[check(slot)]];
+    }
+
+    /**
+     * Sets the direction of an entity, if direction is null the direction is not set.
+     *
+     * @param slot the slot of the entity.
+     * @param direction the new direction.
+     * @throws IndexOutOfBoundsException if the slot is not in use.
+     */
+    public void setDirection(int slot, Direction direction) throws IndexOutOfBoundsException {
+        check(slot);
+        if (direction != null) {
+            directions[slot] = (byte) direction.ordinal();
+        }
+    }
+
+    /**
+     * Gets the phase of a ghost as its view's getPhase() does, so it is FRIGHTENED while a PhaseScheduler
+     * counting down the view frightens every ghost.
+     *
+     * @param slot the slot of the ghost.
+     * @return the phase of the ghost.
+     * @throws IndexOutOfBoundsException if the slot is not in use.
+     */
+    public Phase getPhase(int slot) throws IndexOutOfBoundsException {
+        if (views[check(slot)] instanceof GhostView) {
+            return ((GhostView) views[slot]).getPhase();
+        }
+        return PHASES[phases[slot]];
+    }
+
+    /**
+     * Sets the phase of a ghost and its duration as Ghost.setPhase() does.
+     *
+     * @param slot the slot of the ghost.
+     * @param phase the new phase, if null no changes are made.
+     * @param duration the number of ticks the phase lasts for, negative durations are set to 0.
+     * @throws IndexOutOfBoundsException if the slot is not in use.
+     */
+    public void setPhase(int slot, Phase phase, int duration) throws IndexOutOfBoundsException {
+        check(slot);
+        if (phase != null) {
+            phases[slot] = (byte) phase.ordinal();
+            durations[slot] = Math.max(0, duration);
+            // Keeps a phase scheduler counting down the slot's view up to date
+            if (views[slot] instanceof GhostView) {
+                ((GhostView) views[slot]).phaseSet();
+            }
+        }
+    }
+
+    /**
+     * Gets the remaining phase duration of a ghost, as its view's getPhaseDuration() does, or the remaining
+     * special duration of a hunter.
+     *
+     * @param slot the slot of the entity.
+     * @return the remaining duration.
+     * @throws IndexOutOfBoundsException if the slot is not in use.
+     */
+    public int getDuration(int slot) throws IndexOutOfBoundsException {
+        if (views[check(slot)] instanceof GhostView) {
+            return ((GhostView) views[slot]).getPhaseDuration();
+        }
+        return durations[slot];
+    }
+
+    /**
+     * Checks if an entity is alive.
+     *
+     * @param slot the slot of the entity.
+     * @return true if the entity is alive, false otherwise.
+     * @throws IndexOutOfBoundsException if the slot is not in use.
+     */
+    public boolean isAlive(int slot) throws IndexOutOfBoundsException {
+        return alive[check(slot)];
+    }
+
+    /**
+     * Kills an entity.
+     *
+     * @param slot the slot of the entity.
+     * @throws IndexOutOfBoundsException if the slot is not in use.
+     */
+    public void kill(int slot) throws IndexOutOfBoundsException {
+        alive[check(slot)] = false;
+    }
+
+    /**
+     * Gets the type of a ghost.
+     *
+     * @param slot the slot of the ghost.
+     * @return the type of the ghost.
+     * @throws IndexOutOfBoundsException if the slot is not in use.
+     * @throws IllegalArgumentException if the slot holds a hunter.
+     */
+    public GhostType getGhostType(int slot) throws IndexOutOfBoundsException, IllegalArgumentException {
+        if (hunters[check(slot)]) {
+            throw new IllegalArgumentException("slot " + slot + " holds a hunter");
+        }
+        return GHOST_TYPES[types[slot]];
+    }
+
+    /**
+     * Gets the type of a hunter.
+     *
+     * @param slot the slot of the hunter.
+     * @return the type of the hunter.
+     * @throws IndexOutOfBoundsException if the slot is not in use.
+     * @throws IllegalArgumentException if the slot holds a ghost.
+     */
+    public HunterType getHunterType(int slot) throws IndexOutOfBoundsException, IllegalArgumentException {
+        if (!hunters[check(slot)]) {
+            throw new IllegalArgumentException("slot " + slot + " holds a ghost");
+        }
+        return HUNTER_TYPES[types[slot]];
+    }
+
+    /**
+     * Gets a Ghost view of a slot. Reads and writes through the view go straight to the store.
+     * The same view is returned for every call with the same slot.
+     *
+     * @param slot the slot of the ghost.
+     * @return a view of the ghost.
+     * @throws IndexOutOfBoundsException if the slot is not in use.
+     * @throws IllegalArgumentException if the slot holds a hunter.
+     */
+    public Ghost ghost(int slot) throws IndexOutOfBoundsException, IllegalArgumentException {
+        getGhostType(slot);
+        if (views[slot] == null) {
+            views[slot] = new GhostView(this, slot);
+        }
+        return (Ghost) views[slot];
+    }
+
+    /**
+     * Gets a Hunter view of a slot. Reads and writes through the view go straight to the store, and the view
+     * collides with ghosts following the rules of the slot's HunterType.
+     * The same view is returned for every call with the same slot.
+     *
+     * @param slot the slot of the hunter.
+     * @return a view of the hunter.
+     * @throws IndexOutOfBoundsException if the slot is not in use.
+     * @throws IllegalArgumentException if the slot holds a ghost.
+     */
+    public Hunter hunter(int slot) throws IndexOutOfBoundsException, IllegalArgumentException {
+        getHunterType(slot);
+        if (views[slot] == null) {
+            views[slot] = new HunterView(this, slot);
+        }
+        return (Hunter) views[slot];
+    }
+
+    private int check(int slot) {
+        if (slot < 0 || slot >= size) {
+            throw new IndexOutOfBoundsException("slot " + slot + " is not in use");
+        }
+        return slot;
+    }
+
+    private void resetGhost(int slot) {
+        xs[slot] = 0;
+        ys[slot] = 0;
+        directions[slot] = (byte) Direction.UP.ordinal();
+        phases[slot] = (byte) Phase.SCATTER.ordinal();
+        durations[slot] = Phase.SCATTER.getDuration();
+        alive[slot] = true;
+    }
+
+    private void resetHunter(int slot) {
+        xs[slot] = 0;
+        ys[slot] = 0;
+        directions[slot] = (byte) Direction.UP.ordinal();
+        durations[slot] = 0;
+        alive[slot] = true;
+        specialUsed[slot] = false;
+    }
+
+    /**
+     * A Ghost whose state lives in a slot of an EntityStore.
+     */
+    private static class GhostView extends Ghost {
+
+        private final EntityStore store;
+        private final int slot;
+
+        GhostView(EntityStore store, int slot) {
+            this.store = store;
+            this.slot = slot;
+        }
+
+        @Override
+        public Position getPosition() {
+            return Position.of(store.xs[slot], store.ys[slot]);
+        }
+
+        @Override
+        public void setPosition(Position position) {
+            if (position != null) {
+                store.setPosition(slot, position.getX(), position.getY());
+            }
+        }
+
+        @Override
+        public Direction getDirection() {
+            return store.getDirection(slot);
+        }
+
+        @Override
+        public void setDirection(Direction direction) {
+            store.setDirection(slot, direction);
+        }
+
+        @Override
+        public void setPhase(Phase newPhase, int duration) {
+            store.setPhase(slot, newPhase, duration);
+        }
+
+        @Override
+        public Phase getPhase() {
+            return scheduledPhase(PHASES[store.phases[slot]]);
+        }
+
+        @Override
+        public int getPhaseDuration() {
+            return scheduledDuration(store.durations[slot]);
+        }
+
+        void phaseSet() {
+            phaseChanged(PHASES[store.phases[slot]], store.durations[slot]);
+        }
+
+        @Override
+        public String phaseInfo() {
+            return getPhase() + ":" + getPhaseDuration();
+        }
+
+        @Override
+        public GhostType getType() {
+            return GHOST_TYPES[store.types[slot]];
+        }
+
+        @Override
+        public String getColour() {
+            return GHOST_COLOURS[store.types[slot]];
+        }
+
+        @Override
+        public boolean isDead() {
+            return !store.alive[slot];
+        }
+
+        @Override
+        public void kill() {
+            store.alive[slot] = false;
+        }
+
+        @Override
+        public void reset() {
+            // Ghost() calls reset() before the view is bound to its slot, the slot is reset when it is added
+            if (store != null) {
+                store.resetGhost(slot);
+                phaseSet();
+            }
+        }
+    }
+
+    /**
+     * A Hunter whose state lives in a slot of an EntityStore.
+     */
+    private static class HunterView extends Hunter {
+
+        private final EntityStore store;
+        private final int slot;
+
+        HunterView(EntityStore store, int slot) {
+            this.store = store;
+            this.slot = slot;
+        }
+
+        @Override
+        public Position getPosition() {
+            return Position.of(store.xs[slot], store.ys[slot]);
+        }
+
+        @Override
+        public void setPosition(Position position) {
+            if (position != null) {
+                store.setPosition(slot, position.getX(), position.getY());
+            }
+        }
+
+        @Override
+        public Direction getDirection() {
+            return store.getDirection(slot);
+        }
+
+        @Override
+        public void setDirection(Direction direction) {
+            store.setDirection(slot, direction);
+        }
+
+        @Override
+        public boolean isDead() {
+            return !store.alive[slot];
+        }
+
+        @Override
+        public void activateSpecial(int duration) {
+            if (!store.specialUsed[slot] && duration > 0) {
+                store.specialUsed[slot] = true;
+                store.durations[slot] = duration;
+            }
+        }
+
+        @Override
+        public HunterType getType() {
+            return HUNTER_TYPES[store.types[slot]];
+        }
+
+        @Override
+        protected boolean isSpecialUsed() {
+            return store.specialUsed[slot];
+        }
+
+        @Override
+        public int getSpecialDurationRemaining() {
+            return store.durations[slot];
+        }
+
+        @Override
+        public boolean isSpecialActive() {
+            // Phil has no special
+            return HUNTER_TYPES[store.types[slot]] != HunterType.PHIL && store.durations[slot] > 0;
+        }
+
+        @Override
+        public void tick() {
+            if (store.durations[slot] > 0) {
+                store.durations[slot]--;
+            }
+        }
+
+        @Override
+        protected Collision collision() {
+            if (isSpecialActive()) {
+                HunterType type = HUNTER_TYPES[store.types[slot]];
+                // Phasey passes through ghosts and Hungry eats them while their special is active
+                if (type == HunterType.PHASEY) {
+                    return Collision.PASS_THROUGH;
+                }
+                if (type == HunterType.HUNGRY) {
+                    return Collision.EAT;
+                }
+            }
+            return Collision.NORMAL;
+        }
+
+        @Override
+        protected void die() {
+            store.alive[slot] = false;
+        }
+
+        @Override
+        public void reset() {
+            // Hunter() calls reset() before the view is bound to its slot, the slot is reset when it is added
+            if (store != null) {
+                store.resetHunter(slot);
+            }
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package pacman.game;
+
+import pacman.board.BoardItem;
+import pacman.board.PacmanBoard;
+import pacman.ghost.Ghost;
+import pacman.ghost.Phase;
+import pacman.ghost.PhaseScheduler;
+import pacman.hunter.Hunter;
+import pacman.hunter.HunterType;
+import pacman.score.ScoreBoard;
+import pacman.util.Direction;
+import pacman.util.Position;
+import pacman.util.PositionCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * GameEngine - advances a game of pacman in fixed ticks without any user interface.
+ * Each tick:
+ * - counts down the hunter's special and every ghost's phase with a PhaseScheduler
+ * - moves the hunter one tile in its direction ( two with an active Speedy special ) if the tile is pathable,
+ *   eating the dot it lands on and adding its score to the ScoreBoard. Eating a BIG_DOT frightens every ghost
+ *   with PhaseScheduler.frightenAll()
+ * - moves every living ghost one tile, towards the hunter when chasing and randomly otherwise
+ * - resolves collisions with Hunter.hit() after every move, against the ghosts sharing the hunter's tile
+ * The hunter is steered by setting its direction between ticks. Ghost choices come from a random number
+ * generator seeded by the caller, so two engines built from equal games and seeds play out identically.
+ * The ghosts are tracked in a SpatialIndex and a PhaseScheduler, a ghost moves into the index and scheduler of
+ * the newest engine it is given to.
+ */
+public class GameEngine {
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final PacmanBoard board;
+    private final ScoreBoard scoreBoard;
+    private final Hunter hunter;
+    private final List<Ghost> ghosts;
+    private final SplittableRandom random;
+    private final PositionCache positions;
+    private final SpatialIndex ghostIndex;
+    private final PhaseScheduler phases;
+    private final Entity[] colliding;
+    private long tick;
+
+    /**
+     * Creates an engine for a game. The hunter is placed on the board's pacman spawn and the ghosts on the
+     * ghost spawn, when the board has them.
+     *
+     * @param board the board to play on.
+     * @param scoreBoard the score board to add eaten dots to.
+     * @param hunter the hunter controlled by the player.
+     * @param ghosts the ghosts hunting the player.
+     * @param seed the seed for ghost movement.
+     * @throws NullPointerException if any argument is null or ghosts contains null.
+     */
+    public GameEngine(PacmanBoard board, ScoreBoard scoreBoard, Hunter hunter, List<? extends Ghost> ghosts,
+                      long seed) throws NullPointerException {
+        if (board == null || scoreBoard == null || hunter == null) {
+            throw new NullPointerException();
+        }
+        this.board = board;
+        this.scoreBoard = scoreBoard;
+        this.hunter = hunter;
+        this.ghosts = new ArrayList<Ghost>(ghosts);
+        if (this.ghosts.contains(null)) {
+            throw new NullPointerException();
+        }
+        random = new SplittableRandom(seed);
+        positions = new PositionCache(board.getWidth(), board.getHeight());
+        Position pacmanSpawn = board.getPacmanSpawn();
+        if (pacmanSpawn != null) {
+            hunter.setPosition(pacmanSpawn);
+        }
+        Position ghostSpawn = board.getGhostSpawn();
+        if (ghostSpawn != null) {
+            for (Ghost ghost : this.ghosts) {
+                ghost.setPosition(ghostSpawn);
+            }
+        }
+        ghostIndex = new SpatialIndex(board.getWidth(), board.getHeight(), 1);
+        for (Entity ghost : this.ghosts) {
+            if (ghost.spatialIndex != null) {
+                ghost.spatialIndex.remove(ghost);
+            }
+            ghostIndex.add(ghost);
+        }
+        colliding = new Entity[this.ghosts.size()];
+        phases = new PhaseScheduler();
+        for (Ghost ghost : this.ghosts) {
+            phases.add(ghost);
+        }
+    }
+
+    /**
+     * Gets the number of ticks run so far.
+     *
+     * @return the current tick.
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Gets the board being played on.
+     *
+     * @return the board of this game.
+     */
+    public PacmanBoard getBoard() {
+        return board;
+    }
+
+    /**
+     * Gets the score board eaten dots are added to.
+     *
+     * @return the score board of this game.
+     */
+    public ScoreBoard getScoreBoard() {
+        return scoreBoard;
+    }
+
+    /**
+     * Gets the hunter controlled by the player.
+     *
+     * @return the hunter of this game.
+     */
+    public Hunter getHunter() {
+        return hunter;
+    }
+
+    /**
+     * Checks if the game is over, either because the hunter is dead or because every dot has been eaten.
+     *
+     * @return true if the game is over, false otherwise.
+     */
+    public boolean isOver() {
+        return hunter.isDead() || board.isEmpty();
+    }
+
+    /**
+     * Checks if the player has won by eating every dot while alive.
+     *
+     * @return true if the game is won, false otherwise.
+     */
+    public boolean isWon() {
+        return !hunter.isDead() && board.isEmpty();
+    }
+
+    /**
+     * Runs ticks until the game is over or the given number of ticks have run.
+     *
+     * @param maxTicks the most ticks to run.
+     * @return the number of ticks run.
+     */
+    public int run(int maxTicks) {
+        int ran = 0;
+        while (ran < maxTicks && !isOver()) {
+            tick();
+            ran++;
+        }
+        return ran;
+    }
+
+    /**
+     * Advances the game by one tick. Does nothing once the game is over.
+     */
+    public void tick() {
+        if (isOver()) {
+            return;
+        }
+        hunter.tick();
+        phases.tick();
+
+        int steps = hunter.getType() == HunterType.SPEEDY && hunter.isSpecialActive() ? 2 : 1;
+        for (int i = 0; i < steps && !hunter.isDead(); i++) {
+            Position next = step(hunter.getPosition(), hunter.getDirection());
+            if (next != null) {
+                hunter.setPosition(next);
+                eat(next);
+            }
+            collide();
+        }
+
+        for (Ghost ghost : ghosts) {
+            if (!ghost.isDead() && !hunter.isDead()) {
+                moveGhost(ghost);
+            }
+        }
+        collide();
+        tick++;
+    }
+
+    private void eat(Position position) {
+        BoardItem item = board.eatDot(position);
+        scoreBoard.increaseScore(item.getScore());
+        if (item == BoardItem.BIG_DOT) {
+            phases.frightenAll(Phase.FRIGHTENED.getDuration());
+        }
+    }
+
+    private void collide() {
+        Position position = hunter.getPosition();
+        int count = ghostIndex.entitiesAt(position.getX(), position.getY(), colliding);
+        for (int i = 0; i < count && !hunter.isDead(); i++) {
+            Ghost ghost = (Ghost) colliding[i];
+            if (!ghost.isDead()) {
+                hunter.hit(ghost);
+            }
+        }
+    }
+
+    /* Picks a pathable direction that does not turn back, unless turning back is the only way out */
+    private void moveGhost(Ghost ghost) {
+        Position position = ghost.getPosition();
+        Direction back = ghost.getDirection().opposite();
+        Position target = hunter.getPosition();
+        boolean chasing = ghost.getPhase() == Phase.CHASE;
+        Direction chosen = null;
+        Position chosenPosition = null;
+        long best = Long.MAX_VALUE;
+        int options = 0;
+        for (Direction direction : DIRECTIONS) {
+            if (direction == back) {
+                continue;
+            }
+            Position next = step(position, direction);
+            if (next == null) {
+                continue;
+            }
+            options++;
+            if (chasing) {
+                // Heads for the tile closest to the hunter, keeping the first on a tie
+                long distance = next.distanceSquared(target);
+                if (distance < best) {
+                    best = distance;
+                    chosen = direction;
+                    chosenPosition = next;
+                }
+            } else if (random.nextInt(options) == 0) {
+                // Keeps each of the options seen so far with equal chance
+                chosen = direction;
+                chosenPosition = next;
+            }
+        }
+        if (chosen == null) {
+            chosenPosition = step(position, back);
+            if (chosenPosition == null) {
+                return;
+            }
+            chosen = back;
+        }
+        ghost.setDirection(chosen);
+        ghost.setPosition(chosenPosition);
+    }
+
+    /* Gets the tile one step from position in direction, or null if it is off the board or not pathable */
+    private Position step(Position position, Direction direction) {
+        int x = position.getX() + direction.offset().getX();
+        int y = position.getY() + direction.offset().getY();
+        if (x < 0 || x >= board.getWidth() || y < 0 || y >= board.getHeight()) {
+            return null;
+        }
+        Position next = positions.get(x, y);
+        return board.getEntry(next).getPathable() ? next : null;
+    }
+}
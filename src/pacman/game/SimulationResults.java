@@ -0,0 +1,146 @@
+package pacman.game;
+
+/**
+ * SimulationResults - the outcome of a SimulationRunner.run(), holding the final score, ticks played and result
+ * of every game and the wall clock time the run took.
+ */
+public class SimulationResults {
+
+    private final int[] scores;
+    private final long[] ticks;
+    private final boolean[] won;
+    private final long totalTicks;
+    private final int wins;
+    private final long elapsedNanos;
+
+    /**
+     * Creates the results of a run, taking ownership of the arrays.
+     *
+     * @param scores the final score of each game.
+     * @param ticks the number of ticks each game ran for.
+     * @param won whether each game was won.
+     * @param elapsedNanos the wall clock time the run took in nanoseconds.
+     */
+    SimulationResults(int[] scores, long[] ticks, boolean[] won, long elapsedNanos) {
+        this.scores = scores;
+        this.ticks = ticks;
+        this.won = won;
+        this.elapsedNanos = elapsedNanos;
+        long total = 0;
+        int count = 0;
+        for (int game = 0; game < scores.length; game++) {
+            total += ticks[game];
+            if (won[game]) {
+                count++;
+            }
+        }
+        totalTicks = total;
+        wins = count;
+    }
+
+    /**
+     * Gets the number of games played.
+     *
+     * @return the number of games.
+     */
+    public int getGameCount() {
+        return scores.length;
+    }
+
+    /**
+     * Gets the final score of a game.
+     *
+     * @param game the number of the game.
+     * @return the game's ScoreBoard.getScore() when it finished.
+     * @throws IndexOutOfBoundsException
+     */
+    public int getScore(int game) throws IndexOutOfBoundsException {
+        return scores[game];
+    }
+
+    /**
+     * Gets the number of ticks a game ran for.
+     *
+     * @param game the number of the game.
+     * @return the ticks the game ran for.
+     * @throws IndexOutOfBoundsException
+     */
+    public long getTicks(int game) throws IndexOutOfBoundsException {
+        return ticks[game];
+    }
+
+    /**
+     * Tells if a game was won.
+     *
+     * @param game the number of the game.
+     * @return true if the game was won, false otherwise.
+     * @throws IndexOutOfBoundsException
+     */
+    public boolean isWon(int game) throws IndexOutOfBoundsException {
+        return won[game];
+    }
+
+    /**
+     * Gets the number of games won.
+     *
+     * @return the number of games won.
+     */
+    public int getWins() {
+        return wins;
+    }
+
+    /**
+     * Gets the number of ticks run across every game.
+     *
+     * @return the total ticks.
+     */
+    public long getTotalTicks() {
+        return totalTicks;
+    }
+
+    /**
+     * Gets the wall clock time the run took.
+     *
+     * @return the elapsed time in nanoseconds.
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Gets the number of games finished per second of wall clock time.
+     *
+     * @return the games per second, or 0 if no time was measured.
+     */
+    public double getGamesPerSecond() {
+        return perSecond(scores.length);
+    }
+
+    /**
+     * Gets the number of ticks run per second of wall clock time across every game.
+     *
+     * @return the ticks per second, or 0 if no time was measured.
+     */
+    public double getTicksPerSecond() {
+        return perSecond(totalTicks);
+    }
+
+    private double perSecond(long count) {
+        if (elapsedNanos <= 0) {
+            return 0;
+        }
+        return count * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Summarises the run.
+     *
+     * @return the games, wins, ticks and throughput formatted as such:
+     *         "GAMES games, WINS won, TICKS ticks in SECONDSs (GAMES_PER_SECOND games/s, TICKS_PER_SECOND ticks/s)".
+     */
+    @Override
+    public String toString() {
+        return String.format("%d games, %d won, %d ticks in %.3fs (%.1f games/s, %.1f ticks/s)",
+                scores.length, wins, totalTicks, elapsedNanos / 1e9, getGamesPerSecond(), getTicksPerSecond());
+    }
+}
@@ -0,0 +1,159 @@
+package pacman.game;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * SimulationRunner - plays many independent games at once on a work-stealing ForkJoinPool.
+ * Each game is built by a GameFactory from its number, so it owns its board, score board, hunter and ghosts
+ * and no state is shared between games. Games are split into ranges that idle workers steal from each other,
+ * so long and short games even out across the workers.
+ * The number of workers caps how many games run at once. Each game runs until it is over or a tick limit is
+ * reached, and its ScoreBoard.getScore() is collected in a SimulationResults.
+ */
+public class SimulationRunner {
+
+    /**
+     * Builds the games to play, called from the worker threads so it must be safe to call concurrently.
+     */
+    public interface GameFactory {
+
+        /**
+         * Creates a game.
+         *
+         * @param game the number of the game, from 0 to the number of games - 1.
+         * @return the engine playing the game.
+         */
+        GameEngine create(int game);
+
+        /**
+         * Steers a game before each of its ticks, for example by setting the hunter's direction.
+         * Does nothing by default.
+         *
+         * @param game the number of the game.
+         * @param engine the engine playing the game.
+         */
+        default void steer(int game, GameEngine engine) {
+        }
+    }
+
+    /* Ranges this small are played rather than split */
+    private static final int LEAF_GAMES = 4;
+
+    private final int parallelism;
+
+    /**
+     * Creates a runner using one worker per available processor.
+     */
+    public SimulationRunner() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a runner.
+     *
+     * @param parallelism the most games to run at once.
+     * @throws IllegalArgumentException if parallelism is less than 1 or more than ForkJoinPool allows.
+     */
+    public SimulationRunner(int parallelism) throws IllegalArgumentException {
+        if (parallelism < 1 || parallelism > 0x7fff) {
+            throw new IllegalArgumentException("invalid parallelism: " + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Gets the most games run at once.
+     *
+     * @return the number of workers.
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Plays a number of games and waits for all of them to finish.
+     *
+     * @param games the number of games to play.
+     * @param maxTicks the most ticks to run each game for.
+     * @param factory the factory building the games.
+     * @return the score and ticks of every game and the throughput of the run.
+     * @throws IllegalArgumentException if games or maxTicks is negative.
+     * @throws NullPointerException if factory is null or creates a null game.
+     */
+    public SimulationResults run(int games, int maxTicks, GameFactory factory)
+            throws IllegalArgumentException, NullPointerException {
+        if (games < 0 || maxTicks < 0) {
+            throw new IllegalArgumentException("invalid run of " + games + " games for " + maxTicks + " ticks");
+        }
+        if (factory == null) {
+            throw new NullPointerException();
+        }
+        int[] scores = new int[games];
+        long[] ticks = new long[games];
+        boolean[] won = new boolean[games];
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            // invoke() rethrows anything a game throws once every range has finished
+            pool.invoke(new Games(factory, maxTicks, 0, games, scores, ticks, won));
+        } finally {
+            pool.shutdown();
+        }
+        return new SimulationResults(scores, ticks, won, System.nanoTime() - start);
+    }
+
+    /* Plays a range of games, splitting it in half until it is small enough */
+    private static class Games extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final GameFactory factory;
+        private final int maxTicks;
+        private final int from;
+        private final int to;
+        private final int[] scores;
+        private final long[] ticks;
+        private final boolean[] won;
+
+        Games(GameFactory factory, int maxTicks, int from, int to, int[] scores, long[] ticks, boolean[] won) {
+            this.factory = factory;
+            this.maxTicks = maxTicks;
+            this.from = from;
+            this.to = to;
+            this.scores = scores;
+            this.ticks = ticks;
+            this.won = won;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_GAMES) {
+                for (int game = from; game < to; game++) {
+                    play(game);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new Games(factory, maxTicks, from, middle, scores, ticks, won),
+                    new Games(factory, maxTicks, middle, to, scores, ticks, won));
+        }
+
+        /* Each game only writes its own array elements, joining the tasks publishes them */
+        private void play(int game) {
+            GameEngine engine = factory.create(game);
+            if (engine == null) {
+                throw new NullPointerException("game " + game + " is null");
+            }
+            int ran = 0;
+            while (ran < maxTicks && !engine.isOver()) {
+                factory.steer(game, engine);
+                engine.tick();
+                ran++;
+            }
+            scores[game] = engine.getScoreBoard().getScore();
+            ticks[game] = ran;
+            won[game] = engine.isWon();
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package pacman.game;
+
+import pacman.util.Position;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * SpatialIndex - buckets entities by the block of tiles they stand on so the entities on a tile can be found
+ * without testing every entity.
+ * The board is split into square blocks of blockSize tiles, a block size of 1 gives one bucket per tile.
+ * An entity added to the index tells it about every Entity.setPosition(), so buckets are always up to date.
+ * Entities outside the board are kept in one extra bucket. An entity can be in at most one index at a time,
+ * and an index must not be shared between threads.
+ */
+public class SpatialIndex {
+
+    private final int width;
+    private final int height;
+    private final int blockSize;
+    private final int blocksWide;
+    /* The bucket for entities outside the board */
+    private final int outside;
+    /* First entity id in each bucket, or -1 */
+    private final int[] heads;
+
+    /* Per entity id: the entity, its bucket and its neighbours in the bucket */
+    private Entity[] entities = new Entity[16];
+    private int[] buckets = new int[16];
+    private int[] next = new int[16];
+    private int[] previous = new int[16];
+    /* Ids of removed entities, reused before new ids are handed out */
+    private int[] freeIds = new int[16];
+    private int freeCount;
+    private int nextId;
+    private int size;
+
+    /**
+     * Creates an empty index for a board.
+     *
+     * @param width the width of the board.
+     * @param height the height of the board.
+     * @param blockSize the width and height of a block of tiles sharing a bucket.
+     * @throws IllegalArgumentException if any argument is not positive or the board is too large.
+     */
+    public SpatialIndex(int width, int height, int blockSize) throws IllegalArgumentException {
+        if (width < 1 || height < 1 || blockSize < 1) {
+            throw new IllegalArgumentException("invalid index dimensions: " + width + "x" + height
+                    + " in blocks of " + blockSize);
+        }
+        this.width = width;
+        this.height = height;
+        this.blockSize = blockSize;
+        blocksWide = (width + blockSize - 1) / blockSize;
+        long blocks = (long) blocksWide * ((height + blockSize - 1) / blockSize);
+        if (blocks >= Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("board is too large: " + width + "x" + height);
+        }
+        outside = (int) blocks;
+        heads = new int[outside + 1];
+        Arrays.fill(heads, -1);
+    }
+
+    /**
+     * Gets the number of entities in the index.
+     *
+     * @return the number of entities.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds an entity to the index.
+     *
+     * @param entity the entity to add.
+     * @throws NullPointerException if entity is null.
+     * @throws IllegalArgumentException if the entity is already in an index.
+     */
+    public void add(Entity entity) throws NullPointerException, IllegalArgumentException {
+        if (entity.spatialIndex != null) {
+            throw new IllegalArgumentException("entity is already in a spatial index");
+        }
+        int id = freeCount > 0 ? freeIds[--freeCount] : nextId++;
+        if (id == entities.length) {
+            int capacity = entities.length * 2;
+            entities = Arrays.copyOf(entities, capacity);
+            buckets = Arrays.copyOf(buckets, capacity);
+            next = Arrays.copyOf(next, capacity);
+            previous = Arrays.copyOf(previous, capacity);
+        }
+        entities[id] = entity;
+        entity.spatialIndex = this;
+        entity.spatialId = id;
+        link(id, bucketOf(entity.getPosition()));
+        size++;
+    }
+
+    /**
+     * Removes an entity from the index.
+     *
+     * @param entity the entity to remove.
+     * @return true if the entity was removed, false if it was not in this index.
+     * @throws NullPointerException if entity is null.
+     */
+    public boolean remove(Entity entity) throws NullPointerException {
+        if (entity.spatialIndex != this) {
+            return false;
+        }
+        int id = entity.spatialId;
+        unlink(id);
+        entities[id] = null;
+        entity.spatialIndex = null;
+        entity.spatialId = -1;
+        if (freeCount == freeIds.length) {
+            freeIds = Arrays.copyOf(freeIds, freeIds.length * 2);
+        }
+        freeIds[freeCount++] = id;
+        size--;
+        return true;
+    }
+
+    /**
+     * Moves an entity to the bucket of its current position, called by Entity.setPosition().
+     *
+     * @param entity the entity that has moved.
+     */
+    void moved(Entity entity) {
+        int id = entity.spatialId;
+        int bucket = bucketOf(entity.getPosition());
+        if (bucket != buckets[id]) {
+            unlink(id);
+            link(id, bucket);
+        }
+    }
+
+    /**
+     * Finds the entities standing on a tile, writing them into out.
+     *
+     * @param x the x coordinate of the tile.
+     * @param y the y coordinate of the tile.
+     * @param out the array to write the entities into.
+     * @return the number of entities on the tile, which may be more than were written if out is too short.
+     * @throws NullPointerException if out is null.
+     */
+    public int entitiesAt(int x, int y, Entity[] out) throws NullPointerException {
+        int count = 0;
+        for (int id = heads[bucketOf(x, y)]; id >= 0; id = next[id]) {
+            Position position = entities[id].getPosition();
+            // A bucket may hold a whole block of tiles
+            if (position.getX() == x && position.getY() == y) {
+                if (count < out.length) {
+                    out[count] = entities[id];
+                }
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Finds the entities standing on a tile.
+     *
+     * @param position the position of the tile.
+     * @return the entities on the tile, in no particular order.
+     * @throws NullPointerException if position is null.
+     */
+    public List<Entity> entitiesAt(Position position) throws NullPointerException {
+        List<Entity> found = new ArrayList<Entity>();
+        int x = position.getX();
+        int y = position.getY();
+        for (int id = heads[bucketOf(x, y)]; id >= 0; id = next[id]) {
+            if (entities[id].getPosition().equals(position)) {
+                found.add(entities[id]);
+            }
+        }
+        return found;
+    }
+
+    private int bucketOf(Position position) {
+        return bucketOf(position.getX(), position.getY());
+    }
+
+    private int bucketOf(int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            return outside;
+        }
+        return (y / blockSize) * blocksWide + x / blockSize;
+    }
+
+    private void link(int id, int bucket) {
+        buckets[id] = bucket;
+        previous[id] = -1;
+        next[id] = heads[bucket];
+        if (heads[bucket] >= 0) {
+            previous[heads[bucket]] = id;
+        }
+        heads[bucket] = id;
+    }
+
+    private void unlink(int id) {
+        int before = previous[id];
+        int after = next[id];
+        if (before >= 0) {
+            next[before] = after;
+        } else {
+            heads[buckets[id]] = after;
+        }
+        if (after >= 0) {
+            previous[after] = before;
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package pacman.ghost;
 
 import pacman.game.Entity;
-import pacman.util.Direction;
 import pacman.util.Position;
 import static pacman.ghost.Phase.*;
 import static pacman.util.Direction.*;
@@ -13,10 +12,12 @@ public abstract class Ghost extends Entity {
 
     private Phase phase;
     private int phaseDuration;
-    private Position position;
-    private Direction direction;
     private boolean isAlive;
 
+    /* The scheduler counting down this ghost's phase and the ghost's id in it, if it is in one */
+    PhaseScheduler scheduler;
+    int schedulerId = -1;
+
     /**
      * Creates a ghost which is alive and starts in the SCATTER phase with a duration of Phase.SCATTER.duration().
      * This ghost also has a default position of (0, 0) and a default direction of facing up.
@@ -42,6 +43,7 @@ public abstract class Ghost extends Entity {
             else {
                 phaseDuration = duration;
             }
+            phaseChanged(phase, phaseDuration);
         }
     }
 
@@ -51,7 +53,16 @@ public abstract class Ghost extends Entity {
      * @return the current phase
      */
     public Phase getPhase() {
-        return phase;
+        return scheduledPhase(phase);
+    }
+
+    /**
+     * Gets the number of ticks left in the current phase.
+     *
+     * @return the remaining duration of the current phase.
+     */
+    public int getPhaseDuration() {
+        return scheduledDuration(phaseDuration);
     }
 
     /**
@@ -60,7 +71,7 @@ public abstract class Ghost extends Entity {
      * @return the phase and duration formatted as such: "PHASE:DURATION".
      */
     public String phaseInfo() {
-        return String.format("%s:%d", phase, phaseDuration);
+        return String.format("%s:%d", getPhase(), getPhaseDuration());
     }
 
     /**
@@ -100,10 +111,50 @@ public abstract class Ghost extends Entity {
      */
     public void reset() {
         phase = SCATTER;
-        position = new Position(0,0);
-        direction = UP;
+        phaseDuration = SCATTER.getDuration();
+        setPosition(new Position(0,0));
+        setDirection(UP);
         isAlive = true;
+        phaseChanged(phase, phaseDuration);
+    }
+
+    /**
+     * Tells the PhaseScheduler counting down this ghost, if any, that the ghost's own phase has been set.
+     * Called by subclasses that keep their phase elsewhere whenever it is set.
+     *
+     * @param phase the ghost's own phase.
+     * @param duration the duration the phase was set with.
+     */
+    protected final void phaseChanged(Phase phase, int duration) {
+        if (scheduler != null) {
+            scheduler.rescheduled(schedulerId, phase, duration);
+        }
     }
 
+    /**
+     * Gets the phase this ghost is in, which is FRIGHTENED while its PhaseScheduler frightens every ghost.
+     *
+     * @param phase the ghost's own phase.
+     * @return the phase the ghost is in.
+     */
+    protected final Phase scheduledPhase(Phase phase) {
+        if (scheduler != null && scheduler.isFrightened(schedulerId)) {
+            return FRIGHTENED;
+        }
+        return phase;
+    }
+
+    /**
+     * Gets the number of ticks left in the phase this ghost is in, worked out by its PhaseScheduler if it has one.
+     *
+     * @param duration the duration the ghost's own phase was set with.
+     * @return the remaining duration of the phase.
+     */
+    protected final int scheduledDuration(int duration) {
+        if (scheduler != null) {
+            return scheduler.remaining(schedulerId, duration);
+        }
+        return duration;
+    }
 
 }
@@ -22,4 +22,21 @@ public enum Phase {
     public int getDuration() {
         return duration;
     }
+
+    /**
+     * Gets the phase a ghost moves into when this phase runs out.
+     * SCATTER and CHASE alternate, FRIGHTENED ghosts return to CHASE.
+     *
+     * @return the phase following this one.
+     */
+    public Phase next() {
+        switch (this) {
+            case SCATTER:
+                return CHASE;
+            case CHASE:
+                return SCATTER;
+            default:
+                return CHASE;
+        }
+    }
 }
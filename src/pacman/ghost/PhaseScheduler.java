@@ -0,0 +1,293 @@
+package pacman.ghost;
+
+import java.util.Arrays;
+
+/**
+ * PhaseScheduler - counts down the phases of a group of ghosts with a hashed timing wheel.
+ * Every ghost added is filed in the wheel slot of the tick its phase runs out on, so a tick only looks at the
+ * ghosts filed in one slot and only changes the phases that actually run out, moving each into Phase.next().
+ * Phases longer than the wheel stay in their slot until the wheel comes round to their tick.
+ * Ghost.setPhase() and Ghost.reset() reschedule a ghost, and while a ghost is scheduled Ghost.getPhaseDuration()
+ * is worked out from the tick its phase runs out on.
+ *
+ * frightenAll() frightens every ghost at once without touching them: while it lasts, getPhase() of every ghost
+ * whose phase was set before it returns FRIGHTENED. Their own phases keep counting down underneath and are
+ * returned again once it runs out. A ghost given a new phase during it is no longer frightened.
+ *
+ * A ghost can be in at most one scheduler at a time, and a scheduler must not be shared between threads.
+ */
+public class PhaseScheduler {
+
+    /**
+     * Listens for ghosts moving into the next phase when their phase runs out.
+     * It is not told about frightenAll(), which never visits the ghosts.
+     */
+    public interface Listener {
+
+        /**
+         * Called after a ghost has moved into its next phase.
+         *
+         * @param ghost the ghost.
+         * @param from the phase that ran out.
+         * @param to the phase the ghost is now in.
+         */
+        void phaseChanged(Ghost ghost, Phase from, Phase to);
+    }
+
+    private final int mask;
+    /* First ghost id filed in each slot of the wheel, or -1 */
+    private final int[] heads;
+
+    /* Per ghost id: the ghost, its own phase, the tick it runs out on, when it was set and its slot neighbours */
+    private Ghost[] ghosts = new Ghost[16];
+    private Phase[] phases = new Phase[16];
+    private long[] expiries = new long[16];
+    private long[] setAt = new long[16];
+    private int[] next = new int[16];
+    private int[] previous = new int[16];
+    private int[] freeIds = new int[16];
+    private int freeCount;
+    private int nextId;
+    private int size;
+
+    /* Ids running out on the current tick, copied out of the slot before any of them are rescheduled */
+    private int[] expired = new int[16];
+    private Listener listener;
+    private long tick;
+    /* Counts phase changes so a ghost's own phase can be ordered against frightenAll() */
+    private long sequence;
+    private long frightenedAt = -1;
+    private long frightenedUntil;
+    /* Set while a phase runs out so the new phase does not end frightenAll() for the ghost */
+    private boolean advancing;
+
+    /**
+     * Creates an empty scheduler with a wheel of 64 slots, enough for every phase to run out within one turn.
+     */
+    public PhaseScheduler() {
+        this(64);
+    }
+
+    /**
+     * Creates an empty scheduler.
+     *
+     * @param wheelSize the number of slots in the wheel, rounded up to a power of two.
+     * @throws IllegalArgumentException if wheelSize is less than 1 or more than 2^30.
+     */
+    public PhaseScheduler(int wheelSize) throws IllegalArgumentException {
+        if (wheelSize < 1 || wheelSize > 1 << 30) {
+            throw new IllegalArgumentException("invalid wheel size: " + wheelSize);
+        }
+        int slots = Integer.highestOneBit(wheelSize);
+        if (slots < wheelSize) {
+            slots <<= 1;
+        }
+        mask = slots - 1;
+        heads = new int[slots];
+        Arrays.fill(heads, -1);
+    }
+
+    /**
+     * Sets the listener told about phase changes.
+     *
+     * @param listener the listener, or null to stop listening.
+     */
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Gets the number of ticks run so far.
+     *
+     * @return the current tick.
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Gets the number of ghosts being scheduled.
+     *
+     * @return the number of ghosts.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds a ghost, scheduling its current phase to run out after its current phase duration.
+     * A ghost in another scheduler is moved to this one.
+     *
+     * @param ghost the ghost to add.
+     * @throws NullPointerException if ghost is null.
+     */
+    public void add(Ghost ghost) throws NullPointerException {
+        if (ghost.scheduler == this) {
+            return;
+        }
+        // Reads the phase before the ghost joins, while it is still the ghost's own
+        Phase phase = ghost.getPhase();
+        int duration = ghost.getPhaseDuration();
+        if (ghost.scheduler != null) {
+            ghost.scheduler.remove(ghost);
+        }
+        int id = freeCount > 0 ? freeIds[--freeCount] : nextId++;
+        if (id == ghosts.length) {
+            int capacity = ghosts.length * 2;
+            ghosts = Arrays.copyOf(ghosts, capacity);
+            phases = Arrays.copyOf(phases, capacity);
+            expiries = Arrays.copyOf(expiries, capacity);
+            setAt = Arrays.copyOf(setAt, capacity);
+            next = Arrays.copyOf(next, capacity);
+            previous = Arrays.copyOf(previous, capacity);
+        }
+        ghosts[id] = ghost;
+        next[id] = -1;
+        previous[id] = -1;
+        expiries[id] = -1;
+        ghost.scheduler = this;
+        ghost.schedulerId = id;
+        size++;
+        rescheduled(id, phase, duration);
+    }
+
+    /**
+     * Removes a ghost, leaving it in its current phase with the duration it has left.
+     *
+     * @param ghost the ghost to remove.
+     * @return true if the ghost was removed, false if it was not in this scheduler.
+     * @throws NullPointerException if ghost is null.
+     */
+    public boolean remove(Ghost ghost) throws NullPointerException {
+        if (ghost.scheduler != this) {
+            return false;
+        }
+        int id = ghost.schedulerId;
+        Phase phase = ghost.getPhase();
+        int duration = ghost.getPhaseDuration();
+        unlink(id);
+        ghosts[id] = null;
+        phases[id] = null;
+        ghost.scheduler = null;
+        ghost.schedulerId = -1;
+        if (freeCount == freeIds.length) {
+            freeIds = Arrays.copyOf(freeIds, freeIds.length * 2);
+        }
+        freeIds[freeCount++] = id;
+        size--;
+        ghost.setPhase(phase, duration);
+        return true;
+    }
+
+    /**
+     * Frightens every ghost in the scheduler for a number of ticks, replacing any earlier frightenAll().
+     * Takes the same time however many ghosts there are.
+     *
+     * @param duration the number of ticks the ghosts are frightened for, 0 or less ends an earlier frightenAll().
+     */
+    public void frightenAll(int duration) {
+        frightenedAt = ++sequence;
+        frightenedUntil = tick + Math.max(0, duration);
+    }
+
+    /**
+     * Advances the scheduler by one tick, moving every ghost whose phase runs out into its next phase.
+     */
+    public void tick() {
+        tick++;
+        int count = 0;
+        for (int id = heads[(int) tick & mask]; id >= 0; id = next[id]) {
+            if (expiries[id] == tick) {
+                if (count == expired.length) {
+                    expired = Arrays.copyOf(expired, count * 2);
+                }
+                expired[count++] = id;
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            int id = expired[i];
+            Ghost ghost = ghosts[id];
+            // A listener may have removed or rescheduled the ghost
+            if (ghost == null || expiries[id] != tick) {
+                continue;
+            }
+            Phase from = phases[id];
+            Phase to = from.next();
+            advancing = true;
+            try {
+                ghost.setPhase(to, to.getDuration());
+            } finally {
+                advancing = false;
+            }
+            if (listener != null) {
+                listener.phaseChanged(ghost, from, to);
+            }
+        }
+    }
+
+    /**
+     * Files a ghost under the tick its new phase runs out on, called when the ghost's phase is set.
+     *
+     * @param id the id of the ghost.
+     * @param phase the ghost's own phase.
+     * @param duration the duration of the phase.
+     */
+    void rescheduled(int id, Phase phase, int duration) {
+        unlink(id);
+        phases[id] = phase;
+        if (!advancing) {
+            setAt[id] = ++sequence;
+        }
+        // A phase lasting 0 ticks runs out on the next tick, as it would if it were counted down
+        long expiry = tick + Math.max(1, duration);
+        expiries[id] = expiry;
+        int slot = (int) expiry & mask;
+        previous[id] = -1;
+        next[id] = heads[slot];
+        if (heads[slot] >= 0) {
+            previous[heads[slot]] = id;
+        }
+        heads[slot] = id;
+    }
+
+    /**
+     * Tells if frightenAll() is frightening a ghost.
+     *
+     * @param id the id of the ghost.
+     * @return true if the ghost is frightened by frightenAll(), false otherwise.
+     */
+    boolean isFrightened(int id) {
+        return tick < frightenedUntil && setAt[id] < frightenedAt;
+    }
+
+    /**
+     * Works out the number of ticks left in a ghost's phase.
+     *
+     * @param id the id of the ghost.
+     * @param duration the duration its own phase was set with.
+     * @return the ticks left in the phase getPhase() returns.
+     */
+    int remaining(int id, int duration) {
+        if (isFrightened(id)) {
+            return (int) (frightenedUntil - tick);
+        }
+        return (int) Math.min(duration, expiries[id] - tick);
+    }
+
+    private void unlink(int id) {
+        if (expiries[id] < 0) {
+            return;
+        }
+        int before = previous[id];
+        int after = next[id];
+        if (before >= 0) {
+            next[before] = after;
+        } else {
+            heads[(int) expiries[id] & mask] = after;
+        }
+        if (after >= 0) {
+            previous[after] = before;
+        }
+        expiries[id] = -1;
+    }
+}
@@ -0,0 +1,99 @@
+package pacman.hunter;
+
+import java.util.Arrays;
+
+/**
+ * HitResults - the outcome of a Hunter.hitAll() call, reused between calls so resolving collisions does not
+ * allocate.
+ * Records the index of every ghost the hunter killed, in the order they were hit, and the index of the first
+ * ghost that killed the hunter, if any. Indexes are positions in the ghost collection or slots in the store.
+ */
+public class HitResults {
+
+    private int[] killed;
+    private int killCount;
+    private int killer;
+
+    /**
+     * Creates an empty result buffer.
+     */
+    public HitResults() {
+        this(8);
+    }
+
+    /**
+     * Creates an empty result buffer with room for a number of kills before it has to grow.
+     *
+     * @param capacity the number of kills to make room for.
+     * @throws IllegalArgumentException if capacity is negative.
+     */
+    public HitResults(int capacity) throws IllegalArgumentException {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity cannot be negative: " + capacity);
+        }
+        killed = new int[Math.max(capacity, 1)];
+        killer = -1;
+    }
+
+    /**
+     * Empties the buffer, called by Hunter.hitAll() before it records anything.
+     */
+    public void clear() {
+        killCount = 0;
+        killer = -1;
+    }
+
+    /**
+     * Gets the number of ghosts killed.
+     *
+     * @return the number of kills recorded.
+     */
+    public int getKillCount() {
+        return killCount;
+    }
+
+    /**
+     * Gets the index of a killed ghost.
+     *
+     * @param i the number of the kill, from 0 to getKillCount() - 1.
+     * @return the index of the ghost killed.
+     * @throws IndexOutOfBoundsException
+     */
+    public int getKilled(int i) throws IndexOutOfBoundsException {
+        if (i < 0 || i >= killCount) {
+            throw new IndexOutOfBoundsException("kill " + i + " of " + killCount);
+        }
+        return killed[i];
+    }
+
+    /**
+     * Tells if a ghost killed the hunter.
+     *
+     * @return true if the hunter was killed, false otherwise.
+     */
+    public boolean isHunterKilled() {
+        return killer >= 0;
+    }
+
+    /**
+     * Gets the index of the first ghost that killed the hunter.
+     *
+     * @return the index of the ghost, or -1 if the hunter was not killed.
+     */
+    public int getKiller() {
+        return killer;
+    }
+
+    void addKill(int index) {
+        if (killCount == killed.length) {
+            killed = Arrays.copyOf(killed, killCount * 2);
+        }
+        killed[killCount++] = index;
+    }
+
+    void setKiller(int index) {
+        if (killer < 0) {
+            killer = index;
+        }
+    }
+}
@@ -1,7 +1,5 @@
 package pacman.hunter;
 
-import pacman.ghost.Ghost;
-
 /**
  * A Hungry hunter that has a special ability that allows the hunter to eat ghosts
  * temporarily without them being in a Frightened state.
@@ -28,16 +26,20 @@ public class Hungry extends Hunter {
      * If Hungry's special is active then if we are in the same tile of a ghost,
      * that ghost will be killed. Otherwise it behaves as a normal Hunter.
      *
-     * @param ghost - to check if were colliding with.
+     * @return Collision.EAT while the special is active, Collision.NORMAL otherwise.
      */
-    public void hit(Ghost ghost) {
-        if (this.isSpecialActive()) {
-            if (ghost.getPosition() == this.getPosition()) {
-                ghost.kill();
-            }
-        } else {
-            super.hit(ghost);
-        }
+    @Override
+    protected Collision collision() {
+        return isSpecialActive() ? Collision.EAT : Collision.NORMAL;
+    }
 
+    /**
+     * Gets the hunters type.
+     *
+     * @return HUNGRY
+     */
+    @Override
+    public HunterType getType() {
+        return HunterType.HUNGRY;
     }
 }
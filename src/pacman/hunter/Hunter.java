@@ -1,10 +1,12 @@
 package pacman.hunter;
 
 import pacman.game.Entity;
+import pacman.game.EntityStore;
 import pacman.ghost.Ghost;
 import pacman.ghost.Phase;
-import pacman.util.Direction;
 import pacman.util.Position;
+
+import java.util.Collection;
 import static pacman.util.Direction.*;
 
 
@@ -13,8 +15,18 @@ import static pacman.util.Direction.*;
  */
 public abstract class Hunter extends Entity {
 
-    private Position position;
-    private Direction direction;
+    /**
+     * The ways a hunter can treat a ghost it collides with.
+     */
+    protected enum Collision {
+        /** Frightened ghosts are killed, any other ghost kills the hunter. */
+        NORMAL,
+        /** Frightened ghosts are killed, any other ghost is passed through. */
+        PASS_THROUGH,
+        /** Every ghost is killed. */
+        EAT
+    }
+
     private Boolean specialUsed;
     private Boolean isAlive;
     private int specialDuration;
@@ -38,13 +50,21 @@ public abstract class Hunter extends Entity {
      * @param original - hunter to copy.
      */
     public Hunter(Hunter original) {
+        // Reads through the accessors so hunters keeping their state elsewhere are copied too
         isAlive = !(original.isDead());
-        position = original.getPosition();
-        direction = original.getDirection();
-        specialUsed = original.specialUsed;
-        specialDuration = original.specialDuration;
+        setPosition(original.getPosition());
+        setDirection(original.getDirection());
+        specialUsed = original.isSpecialUsed();
+        specialDuration = original.getSpecialDurationRemaining();
     }
 
+    /**
+     * Gets the hunters type.
+     *
+     * @return this hunters type
+     */
+    public abstract HunterType getType();
+
     /**
      * Tells if the hunter is dead.
      *
@@ -73,6 +93,15 @@ public abstract class Hunter extends Entity {
         }
     }
 
+    /**
+     * Tells if the hunter has used its special.
+     *
+     * @return true if the special has been activated before, false otherwise.
+     */
+    protected boolean isSpecialUsed() {
+        return specialUsed;
+    }
+
     /**
      * Gets how many ticks of our special ability is remaining.
      *
@@ -94,6 +123,15 @@ public abstract class Hunter extends Entity {
         return false;
     }
 
+    /**
+     * Advances the hunter by one tick, counting down the remaining duration of an active special.
+     */
+    public void tick() {
+        if (specialDuration > 0) {
+            specialDuration--;
+        }
+    }
+
     /**
      * Checks to see if the hunter is at the same position of the ghost.
      * If the ghost and hunter do have the same position then
@@ -104,18 +142,92 @@ public abstract class Hunter extends Entity {
      * @throws NullPointerException - if ghost is null
      */
     public void hit(Ghost ghost) throws NullPointerException {
-        if (ghost.getPosition() == this.getPosition()) {
+        if (ghost.getPosition().equals(this.getPosition())) {
+            Collision collision = collision();
             // Determines if ghost is in phase FRIGHTENED
-            if (ghost.getPhase() == Phase.FRIGHTENED) {
+            if (collision == Collision.EAT || ghost.getPhase() == Phase.FRIGHTENED) {
                 ghost.kill();
             }
-            else {
-                // Kills Hunter
-                isAlive = false;
+            else if (collision == Collision.NORMAL) {
+                die();
+            }
+        }
+    }
+
+    /**
+     * Resolves collisions between this hunter and every living ghost in a collection, as if hit() were called
+     * for each of them in order. Ghosts are identified in the results by their position in the collection.
+     *
+     * @param ghosts the ghosts to check if were colliding with.
+     * @param results the buffer to record kills in, cleared first.
+     * @throws NullPointerException if ghosts, any ghost in it or results is null.
+     */
+    public void hitAll(Collection<? extends Ghost> ghosts, HitResults results) throws NullPointerException {
+        results.clear();
+        // The rule cannot change during the loop, so it is only looked up once
+        Collision collision = collision();
+        Position position = getPosition();
+        int index = 0;
+        for (Ghost ghost : ghosts) {
+            if (!ghost.isDead() && ghost.getPosition().equals(position)) {
+                if (collision == Collision.EAT || ghost.getPhase() == Phase.FRIGHTENED) {
+                    ghost.kill();
+                    results.addKill(index);
+                } else if (collision == Collision.NORMAL) {
+                    die();
+                    results.setKiller(index);
+                }
+            }
+            index++;
+        }
+    }
+
+    /**
+     * Resolves collisions between this hunter and every living ghost in an entity store, as if hit() were
+     * called for each of them in slot order. Ghosts are identified in the results by their slot.
+     *
+     * @param store the store holding the ghosts to check if were colliding with.
+     * @param results the buffer to record kills in, cleared first.
+     * @throws NullPointerException if store or results is null.
+     */
+    public void hitAll(EntityStore store, HitResults results) throws NullPointerException {
+        results.clear();
+        Collision collision = collision();
+        Position position = getPosition();
+        int x = position.getX();
+        int y = position.getY();
+        int size = store.size();
+        for (int slot = 0; slot < size; slot++) {
+            if (store.isHunter(slot) || !store.isAlive(slot) || store.getX(slot) != x || store.getY(slot) != y) {
+                continue;
+            }
+            if (collision == Collision.EAT || store.getPhase(slot) == Phase.FRIGHTENED) {
+                store.kill(slot);
+                results.addKill(slot);
+            } else if (collision == Collision.NORMAL) {
+                die();
+                results.setKiller(slot);
             }
         }
     }
 
+    /**
+     * Gets how this hunter currently treats the ghosts it collides with, overridden by hunters whose special
+     * changes the rules.
+     *
+     * @return the current collision rule.
+     */
+    protected Collision collision() {
+        return Collision.NORMAL;
+    }
+
+    /**
+     * Kills this hunter, called when it collides with a ghost that is not frightened.
+     */
+    protected void die() {
+        isAlive = false;
+    }
+
     /**
      * Resets this hunter to be:
      * - Alive
@@ -126,8 +238,8 @@ public abstract class Hunter extends Entity {
      */
     public void reset() {
         isAlive = true;
-        position = new Position(0,0);
-        direction = UP;
+        setPosition(new Position(0,0));
+        setDirection(UP);
         specialUsed = false;
         specialDuration = 0;
     }
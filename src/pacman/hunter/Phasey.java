@@ -1,8 +1,5 @@
 package pacman.hunter;
 
-import pacman.ghost.Ghost;
-import pacman.ghost.Phase;
-
 /**
  * A Phasey hunter with a special ability that allows the hunter to travel through ghosts temporarily without dieing.
  */
@@ -29,15 +26,20 @@ public class Phasey extends Hunter {
      * Phase.FRIGHTENED then we travel through the ghost without killing them or them killing us.
      * Otherwise we behave as a normal Hunter.
      *
-     * @param ghost - to check if we are colliding with.
+     * @return Collision.PASS_THROUGH while the special is active, Collision.NORMAL otherwise.
+     */
+    @Override
+    protected Collision collision() {
+        return isSpecialActive() ? Collision.PASS_THROUGH : Collision.NORMAL;
+    }
+
+    /**
+     * Gets the hunters type.
+     *
+     * @return PHASEY
      */
     @Override
-    public void hit(Ghost ghost) {
-        if (this.isSpecialActive()) {
-            if (ghost.getPhase() != Phase.FRIGHTENED) {}
-        }
-        else {
-            super.hit(ghost);
-        }
+    public HunterType getType() {
+        return HunterType.PHASEY;
     }
 }
@@ -30,4 +30,14 @@ public class Phil extends Hunter{
     public boolean isSpecialActive() {
         return false;
     }
+
+    /**
+     * Gets the hunters type.
+     *
+     * @return PHIL
+     */
+    @Override
+    public HunterType getType() {
+        return HunterType.PHIL;
+    }
 }
@@ -21,4 +21,13 @@ public class Speedy extends Hunter {
         super(original);
     }
 
+    /**
+     * Gets the hunters type.
+     *
+     * @return SPEEDY
+     */
+    @Override
+    public HunterType getType() {
+        return HunterType.SPEEDY;
+    }
 }
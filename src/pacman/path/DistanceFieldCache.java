@@ -0,0 +1,226 @@
+package pacman.path;
+
+import pacman.util.Position;
+
+import java.util.Arrays;
+
+/**
+ * DistanceFieldCache - caches, for a set of recently used target tiles, the distance from every tile of the board
+ * to the target.
+ * The first query for a target runs one breadth first search over the NavGraph and stores the number of steps
+ * to the target for every cell in an int array. Later queries for that target are a single array read.
+ * The least recently used field is dropped once the cache would use more than its memory budget, and every field
+ * is dropped when the walls of the board change. A cache must not be shared between threads.
+ */
+public class DistanceFieldCache {
+
+    private final NavGraphCache graphs;
+    private final long maxBytes;
+
+    /* The graph the cached fields were computed on */
+    private NavGraph graph;
+    private int capacity;
+    /* fields[slot][cell] is the number of steps from cell to the target of slot, or -1 if it cannot be reached */
+    private int[][] fields;
+    private int[] slotTarget;
+    /* cell -> slot caching the field towards that cell, or -1 */
+    private int[] targetSlot;
+    /* Doubly linked list of used slots, most recently used first */
+    private int[] previous;
+    private int[] next;
+    private int head = -1;
+    private int tail = -1;
+    private int used;
+    /* Breadth first search queue, indexed by node */
+    private int[] queue = new int[0];
+
+    /**
+     * Creates a cache of distance fields over the graph held by a graph cache.
+     *
+     * @param graphs the cache holding the graph of the board.
+     * @param maxBytes the most memory the fields may use, at least one field is always kept.
+     * @throws NullPointerException if graphs is null.
+     * @throws IllegalArgumentException if maxBytes is not positive.
+     */
+    public DistanceFieldCache(NavGraphCache graphs, long maxBytes)
+    throws NullPointerException, IllegalArgumentException {
+        if (graphs == null) {
+            throw new NullPointerException();
+        }
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes must be positive: " + maxBytes);
+        }
+        this.graphs = graphs;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Gets the number of steps on a shortest path from a position to a target.
+     *
+     * @param from the position to measure from.
+     * @param target the target position.
+     * @return the number of steps, or -1 if the target cannot be reached or either position is not pathable.
+     * @throws IndexOutOfBoundsException if either position is off the board.
+     * @throws NullPointerException if either position is null.
+     */
+    public int distance(Position from, Position target) throws IndexOutOfBoundsException, NullPointerException {
+        NavGraph current = graphs.get();
+        return distance(current.cellOf(from), current.cellOf(target));
+    }
+
+    /**
+     * Gets the number of steps on a shortest path from a cell to a target cell.
+     *
+     * @param fromCell the cell index to measure from.
+     * @param targetCell the cell index of the target.
+     * @return the number of steps, or -1 if the target cannot be reached or either tile is not pathable.
+     * @throws IndexOutOfBoundsException if either cell is off the board.
+     */
+    public int distance(int fromCell, int targetCell) throws IndexOutOfBoundsException {
+        return field(targetCell)[fromCell];
+    }
+
+    /**
+     * Gets the number of fields currently cached.
+     *
+     * @return the number of cached fields.
+     */
+    public int size() {
+        return used;
+    }
+
+    /**
+     * Gets the most fields the cache keeps for the current board.
+     *
+     * @return the capacity of the cache.
+     */
+    public int getCapacity() {
+        ensureGraph();
+        return capacity;
+    }
+
+    /* Gets the field towards a target, computing it if it is not cached */
+    private int[] field(int targetCell) {
+        ensureGraph();
+        int slot = targetSlot[targetCell];
+        if (slot >= 0) {
+            moveToFront(slot);
+            return fields[slot];
+        }
+        if (used < capacity) {
+            slot = used++;
+            if (slot == fields.length) {
+                grow();
+            }
+            if (fields[slot] == null) {
+                fields[slot] = new int[targetSlot.length];
+            }
+        } else {
+            // Reuses the array of the least recently used field
+            slot = tail;
+            unlink(slot);
+            targetSlot[slotTarget[slot]] = -1;
+        }
+        compute(targetCell, fields[slot]);
+        slotTarget[slot] = targetCell;
+        targetSlot[targetCell] = slot;
+        linkFirst(slot);
+        return fields[slot];
+    }
+
+    /* Drops every field if the walls have changed since they were computed */
+    private void ensureGraph() {
+        NavGraph current = graphs.get();
+        if (current == graph) {
+            return;
+        }
+        int cells = current.width * current.height;
+        if (graph == null || targetSlot.length != cells) {
+            long fieldBytes = 4L * cells;
+            capacity = (int) Math.max(1, Math.min(Integer.MAX_VALUE - 8, maxBytes / fieldBytes));
+            // Sizes the slot arrays lazily so a large budget does not allocate up front
+            int slots = Math.min(capacity, 16);
+            fields = new int[slots][];
+            slotTarget = new int[slots];
+            previous = new int[slots];
+            next = new int[slots];
+            targetSlot = new int[cells];
+        }
+        Arrays.fill(targetSlot, -1);
+        head = -1;
+        tail = -1;
+        used = 0;
+        graph = current;
+        if (queue.length < graph.getNodeCount()) {
+            queue = new int[graph.getNodeCount()];
+        }
+    }
+
+    /* Runs a breadth first search out from the target, writing the distance of every cell into field */
+    private void compute(int targetCell, int[] field) {
+        Arrays.fill(field, -1);
+        int start = graph.cellNode[targetCell];
+        if (start < 0) {
+            return;
+        }
+        field[targetCell] = 0;
+        int queueHead = 0;
+        int queueTail = 0;
+        queue[queueTail++] = start;
+        while (queueHead < queueTail) {
+            int node = queue[queueHead++];
+            int distance = field[graph.nodeCell[node]] + 1;
+            for (int e = graph.offsets[node]; e < graph.offsets[node + 1]; e++) {
+                int neighbour = graph.edges[e];
+                int cell = graph.nodeCell[neighbour];
+                if (field[cell] < 0) {
+                    field[cell] = distance;
+                    queue[queueTail++] = neighbour;
+                }
+            }
+        }
+    }
+
+    private void moveToFront(int slot) {
+        if (slot != head) {
+            unlink(slot);
+            linkFirst(slot);
+        }
+    }
+
+    private void linkFirst(int slot) {
+        previous[slot] = -1;
+        next[slot] = head;
+        if (head >= 0) {
+            previous[head] = slot;
+        }
+        head = slot;
+        if (tail < 0) {
+            tail = slot;
+        }
+    }
+
+    private void unlink(int slot) {
+        int before = previous[slot];
+        int after = next[slot];
+        if (before >= 0) {
+            next[before] = after;
+        } else {
+            head = after;
+        }
+        if (after >= 0) {
+            previous[after] = before;
+        } else {
+            tail = before;
+        }
+    }
+
+    /* Doubles the slot arrays, up to the capacity */
+    private void grow() {
+        int slots = (int) Math.min(capacity, 2L * fields.length);
+        fields = Arrays.copyOf(fields, slots);
+        slotTarget = Arrays.copyOf(slotTarget, slots);
+        previous = Arrays.copyOf(previous, slots);
+        next = Arrays.copyOf(next, slots);
+    }
+}
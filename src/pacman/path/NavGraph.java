@@ -0,0 +1,184 @@
+package pacman.path;
+
+import pacman.board.Bitboard;
+import pacman.board.BoardLayers;
+import pacman.board.PacmanBoard;
+import pacman.util.Position;
+
+import java.util.Arrays;
+
+/**
+ * NavGraph - the pathable tiles of a PacmanBoard compiled into a compact adjacency structure.
+ * Every pathable tile is a node, nodes are joined to the pathable tiles directly up, down, left and right of them.
+ * Tiles are addressed by cell index ( y * width + x ) as on the board, nodes by their own dense index.
+ * The adjacency is held in compressed rows: the neighbours of node n are edges[offsets[n]] to
+ * edges[offsets[n + 1] - 1].
+ * A graph is immutable and describes the board as it was when compiled, see NavGraphCache.
+ */
+public class NavGraph {
+
+    /* Neighbour offsets in the order edges are stored: up, left, right, down */
+    private static final int[] DX = {0, -1, 1, 0};
+    private static final int[] DY = {-1, 0, 0, 1};
+
+    final int width;
+    final int height;
+    final int version;
+    /* node -> cell */
+    final int[] nodeCell;
+    /* cell -> node, or -1 for a tile that is not pathable */
+    final int[] cellNode;
+    final int[] offsets;
+    final int[] edges;
+
+    private NavGraph(int width, int height, int version, int[] nodeCell, int[] cellNode, int[] offsets,
+                     int[] edges) {
+        this.width = width;
+        this.height = height;
+        this.version = version;
+        this.nodeCell = nodeCell;
+        this.cellNode = cellNode;
+        this.offsets = offsets;
+        this.edges = edges;
+    }
+
+    /**
+     * Compiles the pathable tiles of a board into a graph.
+     *
+     * @param board the board to compile.
+     * @return the graph of the board.
+     * @throws NullPointerException if board is null.
+     */
+    public static NavGraph compile(PacmanBoard board) throws NullPointerException {
+        int version = board.getWallVersion();
+        int width = board.getWidth();
+        int height = board.getHeight();
+        Bitboard pathable = BoardLayers.of(board).pathable();
+        int nodeCount = pathable.cardinality();
+
+        // Numbers the pathable tiles in cell order
+        int[] nodeCell = new int[nodeCount];
+        int[] cellNode = new int[width * height];
+        Arrays.fill(cellNode, -1);
+        int node = 0;
+        for (int cell = pathable.nextSetBit(0); cell >= 0; cell = pathable.nextSetBit(cell + 1)) {
+            nodeCell[node] = cell;
+            cellNode[cell] = node++;
+        }
+
+        // Counts then fills the neighbours of every node
+        int[] offsets = new int[nodeCount + 1];
+        for (int n = 0; n < nodeCount; n++) {
+            offsets[n + 1] = offsets[n] + degree(nodeCell[n], width, height, cellNode);
+        }
+        int[] edges = new int[offsets[nodeCount]];
+        for (int n = 0; n < nodeCount; n++) {
+            int cell = nodeCell[n];
+            int x = cell % width;
+            int y = cell / width;
+            int edge = offsets[n];
+            for (int d = 0; d < DX.length; d++) {
+                int neighbour = neighbour(x + DX[d], y + DY[d], width, height, cellNode);
+                if (neighbour >= 0) {
+                    edges[edge++] = neighbour;
+                }
+            }
+        }
+        return new NavGraph(width, height, version, nodeCell, cellNode, offsets, edges);
+    }
+
+    /* Counts the pathable neighbours of a cell */
+    private static int degree(int cell, int width, int height, int[] cellNode) {
+        int x = cell % width;
+        int y = cell / width;
+        int degree = 0;
+        for (int d = 0; d < DX.length; d++) {
+            if (neighbour(x + DX[d], y + DY[d], width, height, cellNode) >= 0) {
+                degree++;
+            }
+        }
+        return degree;
+    }
+
+    /* Gets the node at ( x, y ), or -1 if it is off the board or not pathable */
+    private static int neighbour(int x, int y, int width, int height, int[] cellNode) {
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            return -1;
+        }
+        return cellNode[y * width + x];
+    }
+
+    /**
+     * Gets the width of the board the graph was compiled from.
+     *
+     * @return the width of the board.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Gets the height of the board the graph was compiled from.
+     *
+     * @return the height of the board.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Gets the wall version of the board when the graph was compiled.
+     *
+     * @return the wall version the graph describes.
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the number of nodes, which is the number of pathable tiles.
+     *
+     * @return the number of nodes.
+     */
+    public int getNodeCount() {
+        return nodeCell.length;
+    }
+
+    /**
+     * Gets the cell index of a position.
+     *
+     * @param position the position on the board.
+     * @return the cell index ( y * width + x ).
+     * @throws IndexOutOfBoundsException if the position is off the board.
+     * @throws NullPointerException if position is null.
+     */
+    public int cellOf(Position position) throws IndexOutOfBoundsException, NullPointerException {
+        return cellOf(position.getX(), position.getY());
+    }
+
+    /**
+     * Gets the cell index of a tile.
+     *
+     * @param x the x coordinate of the tile.
+     * @param y the y coordinate of the tile.
+     * @return the cell index ( y * width + x ).
+     * @throws IndexOutOfBoundsException if the tile is off the board.
+     */
+    public int cellOf(int x, int y) throws IndexOutOfBoundsException {
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            throw new IndexOutOfBoundsException("position (" + x + ", " + y + ") is outside the board");
+        }
+        return y * width + x;
+    }
+
+    /**
+     * Checks if the tile at a cell index is pathable.
+     *
+     * @param cell the cell index of the tile.
+     * @return true if the tile is pathable, false otherwise.
+     * @throws IndexOutOfBoundsException if the cell is off the board.
+     */
+    public boolean isPathable(int cell) throws IndexOutOfBoundsException {
+        return cellNode[cell] >= 0;
+    }
+}
@@ -0,0 +1,47 @@
+package pacman.path;
+
+import pacman.board.PacmanBoard;
+
+/**
+ * NavGraphCache - holds the compiled NavGraph of one board and recompiles it when the walls of the board change.
+ * Changes to tiles that keep them pathable, such as eating dots, do not invalidate the graph.
+ */
+public class NavGraphCache {
+
+    private final PacmanBoard board;
+    private NavGraph graph;
+
+    /**
+     * Creates a cache for a board. The graph is compiled the first time it is requested.
+     *
+     * @param board the board to compile.
+     * @throws NullPointerException if board is null.
+     */
+    public NavGraphCache(PacmanBoard board) throws NullPointerException {
+        if (board == null) {
+            throw new NullPointerException();
+        }
+        this.board = board;
+    }
+
+    /**
+     * Gets the board this cache compiles.
+     *
+     * @return the board of this cache.
+     */
+    public PacmanBoard getBoard() {
+        return board;
+    }
+
+    /**
+     * Gets the graph of the board, compiling it again if a wall has been placed or removed since the last call.
+     *
+     * @return the current graph of the board.
+     */
+    public NavGraph get() {
+        if (graph == null || graph.version != board.getWallVersion()) {
+            graph = NavGraph.compile(board);
+        }
+        return graph;
+    }
+}
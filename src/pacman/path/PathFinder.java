@@ -0,0 +1,248 @@
+package pacman.path;
+
+import pacman.util.Position;
+
+import java.util.Arrays;
+
+/**
+ * PathFinder - answers shortest path queries over the NavGraph of a board with breadth first search and A*.
+ * All working state lives in scratch arrays owned by the path finder, they are only reallocated when the graph
+ * grows, so queries do not allocate. A path finder must not be shared between threads.
+ * Paths are written as cell indices ( y * width + x ), starting with the start tile and ending with the goal.
+ */
+public class PathFinder {
+
+    private final NavGraphCache cache;
+
+    /* Scratch state, indexed by node. A node's entries are only valid when its stamp equals the query stamp. */
+    private int[] stamp = new int[0];
+    private int[] parent = new int[0];
+    private int[] cost = new int[0];
+    private int[] queue = new int[0];
+    private int[] heapNode = new int[0];
+    private int[] heapKey = new int[0];
+    private int currentStamp;
+
+    /**
+     * Creates a path finder over the graph held by a cache. Every query uses the current graph of the cache.
+     *
+     * @param cache the cache holding the graph to search.
+     * @throws NullPointerException if cache is null.
+     */
+    public PathFinder(NavGraphCache cache) throws NullPointerException {
+        if (cache == null) {
+            throw new NullPointerException();
+        }
+        this.cache = cache;
+    }
+
+    /**
+     * Finds the number of steps on a shortest path between two positions using breadth first search.
+     *
+     * @param from the start position.
+     * @param to the goal position.
+     * @return the number of steps, or -1 if the goal cannot be reached or either position is not pathable.
+     * @throws IndexOutOfBoundsException if either position is off the board.
+     * @throws NullPointerException if either position is null.
+     */
+    public int distance(Position from, Position to) throws IndexOutOfBoundsException, NullPointerException {
+        NavGraph graph = cache.get();
+        return distance(graph.cellOf(from), graph.cellOf(to));
+    }
+
+    /**
+     * Finds the number of steps on a shortest path between two cells using breadth first search.
+     *
+     * @param fromCell the cell index of the start tile.
+     * @param toCell the cell index of the goal tile.
+     * @return the number of steps, or -1 if the goal cannot be reached or either tile is not pathable.
+     * @throws IndexOutOfBoundsException if either cell is off the board.
+     */
+    public int distance(int fromCell, int toCell) throws IndexOutOfBoundsException {
+        NavGraph graph = cache.get();
+        int goal = bfs(graph, fromCell, toCell);
+        return goal < 0 ? -1 : cost[goal];
+    }
+
+    /**
+     * Finds a shortest path between two cells using breadth first search.
+     *
+     * @param fromCell the cell index of the start tile.
+     * @param toCell the cell index of the goal tile.
+     * @param path the array to write the cells of the path into.
+     * @return the number of cells written, or -1 if the goal cannot be reached or either tile is not pathable.
+     * @throws IndexOutOfBoundsException if either cell is off the board or path is too short to hold the path.
+     */
+    public int bfsPath(int fromCell, int toCell, int[] path) throws IndexOutOfBoundsException {
+        NavGraph graph = cache.get();
+        int goal = bfs(graph, fromCell, toCell);
+        return goal < 0 ? -1 : writePath(graph, goal, cost[goal] + 1, path);
+    }
+
+    /**
+     * Finds a shortest path between two cells using A* with the Manhattan distance as the heuristic.
+     *
+     * @param fromCell the cell index of the start tile.
+     * @param toCell the cell index of the goal tile.
+     * @param path the array to write the cells of the path into.
+     * @return the number of cells written, or -1 if the goal cannot be reached or either tile is not pathable.
+     * @throws IndexOutOfBoundsException if either cell is off the board or path is too short to hold the path.
+     */
+    public int aStarPath(int fromCell, int toCell, int[] path) throws IndexOutOfBoundsException {
+        NavGraph graph = cache.get();
+        int goal = aStar(graph, fromCell, toCell);
+        return goal < 0 ? -1 : writePath(graph, goal, cost[goal] + 1, path);
+    }
+
+    /* Runs a breadth first search and returns the goal node, or -1 if it was not reached */
+    private int bfs(NavGraph graph, int fromCell, int toCell) {
+        int start = graph.cellNode[fromCell];
+        int goal = graph.cellNode[toCell];
+        if (start < 0 || goal < 0) {
+            return -1;
+        }
+        begin(graph);
+        visit(start, -1, 0);
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
+        while (head < tail) {
+            int node = queue[head++];
+            if (node == goal) {
+                return goal;
+            }
+            for (int e = graph.offsets[node]; e < graph.offsets[node + 1]; e++) {
+                int next = graph.edges[e];
+                if (stamp[next] != currentStamp) {
+                    visit(next, node, cost[node] + 1);
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /* Runs an A* search and returns the goal node, or -1 if it was not reached */
+    private int aStar(NavGraph graph, int fromCell, int toCell) {
+        int start = graph.cellNode[fromCell];
+        int goal = graph.cellNode[toCell];
+        if (start < 0 || goal < 0) {
+            return -1;
+        }
+        begin(graph);
+        int width = graph.width;
+        int goalX = toCell % width;
+        int goalY = toCell / width;
+        visit(start, -1, 0);
+        int heapSize = push(0, start, heuristic(fromCell, width, goalX, goalY));
+        while (heapSize > 0) {
+            int node = heapNode[0];
+            int key = heapKey[0];
+            heapSize = pop(heapSize);
+            // Skips entries left behind when a node was reached again by a cheaper path
+            if (key - heuristic(graph.nodeCell[node], width, goalX, goalY) > cost[node]) {
+                continue;
+            }
+            if (node == goal) {
+                return goal;
+            }
+            for (int e = graph.offsets[node]; e < graph.offsets[node + 1]; e++) {
+                int next = graph.edges[e];
+                int nextCost = cost[node] + 1;
+                if (stamp[next] != currentStamp || nextCost < cost[next]) {
+                    visit(next, node, nextCost);
+                    heapSize = push(heapSize, next,
+                            nextCost + heuristic(graph.nodeCell[next], width, goalX, goalY));
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static int heuristic(int cell, int width, int goalX, int goalY) {
+        return Math.abs(cell % width - goalX) + Math.abs(cell / width - goalY);
+    }
+
+    /* Starts a new query, growing the scratch arrays if the graph has grown */
+    private void begin(NavGraph graph) {
+        int nodes = graph.getNodeCount();
+        if (stamp.length < nodes) {
+            stamp = new int[nodes];
+            parent = new int[nodes];
+            cost = new int[nodes];
+            queue = new int[nodes];
+            currentStamp = 0;
+        }
+        // Every relaxation pushes at most one heap entry
+        if (heapNode.length < graph.edges.length + 1) {
+            heapNode = new int[graph.edges.length + 1];
+            heapKey = new int[graph.edges.length + 1];
+        }
+        if (++currentStamp == Integer.MAX_VALUE) {
+            Arrays.fill(stamp, 0);
+            currentStamp = 1;
+        }
+    }
+
+    private void visit(int node, int from, int nodeCost) {
+        stamp[node] = currentStamp;
+        parent[node] = from;
+        cost[node] = nodeCost;
+    }
+
+    /* Adds a node to the binary min heap and returns the new heap size */
+    private int push(int size, int node, int key) {
+        int i = size;
+        while (i > 0) {
+            int up = (i - 1) >>> 1;
+            if (heapKey[up] <= key) {
+                break;
+            }
+            heapNode[i] = heapNode[up];
+            heapKey[i] = heapKey[up];
+            i = up;
+        }
+        heapNode[i] = node;
+        heapKey[i] = key;
+        return size + 1;
+    }
+
+    /* Removes the smallest entry of the binary min heap and returns the new heap size */
+    private int pop(int size) {
+        size--;
+        int node = heapNode[size];
+        int key = heapKey[size];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && heapKey[child + 1] < heapKey[child]) {
+                child++;
+            }
+            if (heapKey[child] >= key) {
+                break;
+            }
+            heapNode[i] = heapNode[child];
+            heapKey[i] = heapKey[child];
+            i = child;
+        }
+        heapNode[i] = node;
+        heapKey[i] = key;
+        return size;
+    }
+
+    /* Follows the parents back from the goal, writing the path start first */
+    private int writePath(NavGraph graph, int goal, int length, int[] path) {
+        if (path.length < length) {
+            throw new IndexOutOfBoundsException("path of " + length + " cells does not fit in " + path.length);
+        }
+        int node = goal;
+        for (int i = length - 1; i >= 0; i--) {
+            path[i] = graph.nodeCell[node];
+            node = parent[node];
+        }
+        return length;
+    }
+}
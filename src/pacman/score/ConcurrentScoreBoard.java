@@ -0,0 +1,237 @@
+package pacman.score;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ConcurrentScoreBoard - a ScoreBoard that can be shared between threads without any outside locking.
+ * Scores are kept in two lock-free skip lists, one ordered by name and one by score then name.
+ * Setting a score only locks one of a fixed set of stripes picked by the name's hash, so threads setting
+ * different names rarely wait for each other. The current score is a LongAdder, so increaseScore() never
+ * contends.
+ * Reads never lock and never block writers. They are weakly consistent: while a name's score is being
+ * replaced, a listing by score may show the name with both its old and new score. Iterators never throw
+ * ConcurrentModificationException.
+ * Ranks are counted by walking the score order, so rankOf() and page() take time proportional to the rank or
+ * offset rather than its logarithm as in ScoreBoard.
+ */
+public class ConcurrentScoreBoard extends ScoreBoard {
+
+    /* Orders entries by score in descending order, then by name */
+    private static final Comparator<Entry> BY_SCORE = (a, b) -> a.score != b.score
+            ? Integer.compare(b.score, a.score) : a.name.compareTo(b.name);
+
+    private final ConcurrentSkipListMap<String, Integer> byName = new ConcurrentSkipListMap<String, Integer>();
+    private final ConcurrentSkipListSet<Entry> byScore = new ConcurrentSkipListSet<Entry>(BY_SCORE);
+    private final Object[] stripes;
+    private final LongAdder current = new LongAdder();
+
+    /**
+     * Creates a score board that has no entries and a current score of 0, with 64 lock stripes.
+     */
+    public ConcurrentScoreBoard() {
+        this(64);
+    }
+
+    /**
+     * Creates a score board that has no entries and a current score of 0.
+     *
+     * @param stripes the number of locks shared between names, rounded up to a power of two.
+     * @throws IllegalArgumentException if stripes is less than 1 or more than 2^16.
+     */
+    public ConcurrentScoreBoard(int stripes) throws IllegalArgumentException {
+        super(false);
+        if (stripes < 1 || stripes > 1 << 16) {
+            throw new IllegalArgumentException("invalid stripe count: " + stripes);
+        }
+        int count = Integer.highestOneBit(stripes);
+        if (count < stripes) {
+            count <<= 1;
+        }
+        this.stripes = new Object[count];
+        for (int i = 0; i < count; i++) {
+            this.stripes[i] = new Object();
+        }
+    }
+
+    @Override
+    public List<String> getEntriesByName() {
+        List<String> list = new ArrayList<String>();
+        byName.forEach((k, v) -> list.add(EntryFormat.format(k, v)));
+        return list;
+    }
+
+    @Override
+    public List<String> getEntriesByScore() {
+        return page(0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<String> pageByName(String after, int limit) throws IllegalArgumentException {
+        if (limit < 0) {
+            throw new IllegalArgumentException("invalid page of " + limit);
+        }
+        Map<String, Integer> tail = after == null ? byName : byName.tailMap(after, false);
+        List<String> list = new ArrayList<String>();
+        for (Map.Entry<String, Integer> entry : tail.entrySet()) {
+            if (list.size() == limit) {
+                break;
+            }
+            list.add(EntryFormat.format(entry.getKey(), entry.getValue()));
+        }
+        return list;
+    }
+
+    @Override
+    public Iterator<String> iterateByName() {
+        Iterator<Map.Entry<String, Integer>> entries = byName.entrySet().iterator();
+        return new Iterator<String>() {
+            @Override
+            public boolean hasNext() {
+                return entries.hasNext();
+            }
+
+            @Override
+            public String next() {
+                Map.Entry<String, Integer> entry = entries.next();
+                return EntryFormat.format(entry.getKey(), entry.getValue());
+            }
+        };
+    }
+
+    @Override
+    public Iterator<String> iterateByScore(int offset) throws IllegalArgumentException {
+        if (offset < 0) {
+            throw new IllegalArgumentException("invalid offset: " + offset);
+        }
+        Iterator<Entry> entries = byScore.iterator();
+        for (int i = 0; i < offset && entries.hasNext(); i++) {
+            entries.next();
+        }
+        return new Iterator<String>() {
+            @Override
+            public boolean hasNext() {
+                return entries.hasNext();
+            }
+
+            @Override
+            public String next() {
+                Entry entry = entries.next();
+                return EntryFormat.format(entry.name, entry.score);
+            }
+        };
+    }
+
+    @Override
+    public int rankOf(String name) {
+        Integer stored = name == null ? null : byName.get(name);
+        if (stored == null) {
+            return -1;
+        }
+        // Counts the entries ahead, the name may have been given a new score in the meantime
+        NavigableSet<Entry> ahead = byScore.headSet(new Entry(name, stored), false);
+        return ahead.size() + 1;
+    }
+
+    @Override
+    public List<String> page(int offset, int limit) throws IllegalArgumentException {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("invalid page of " + limit + " from " + offset);
+        }
+        List<String> list = new ArrayList<String>();
+        Iterator<String> entries = iterateByScore(offset);
+        while (list.size() < limit && entries.hasNext()) {
+            list.add(entries.next());
+        }
+        return list;
+    }
+
+    @Override
+    public void setScore(String name, int score) {
+        if (!nameValid(name) || score < 0) {
+            return;
+        }
+        // Names sharing a stripe update both orders one at a time, so they always agree once the lock is released
+        synchronized (stripes[stripe(name)]) {
+            Integer previous = byName.put(name, score);
+            if (previous == null || previous != score) {
+                // Adds the new entry before removing the old one so readers never miss the name
+                byScore.add(new Entry(name, score));
+                if (previous != null) {
+                    byScore.remove(new Entry(name, previous));
+                }
+            }
+        }
+    }
+
+    /**
+     * Sets many scores at once as ScoreBoard.loadScores() does, one entry at a time so concurrent readers and
+     * writers are never locked out for the whole batch.
+     *
+     * @param names the names of the scorers.
+     * @param values the score of each name.
+     * @param count the number of entries to load from the start of the arrays.
+     * @return the number of entries accepted and rejected.
+     * @throws NullPointerException if names or values is null.
+     * @throws IndexOutOfBoundsException if count is negative or longer than either array.
+     */
+    @Override
+    public LoadResult loadScores(String[] names, int[] values, int count)
+    throws NullPointerException, IndexOutOfBoundsException {
+        if (count < 0 || count > names.length || count > values.length) {
+            throw new IndexOutOfBoundsException("cannot load " + count + " entries");
+        }
+        int accepted = 0;
+        for (int i = 0; i < count; i++) {
+            if (values[i] >= 0 && nameValid(names[i])) {
+                setScore(names[i], values[i]);
+                accepted++;
+            }
+        }
+        return new LoadResult(accepted, count - accepted);
+    }
+
+    @Override
+    public void increaseScore(int additional) {
+        if (additional > 0) {
+            current.add(additional);
+        }
+    }
+
+    @Override
+    public int getScore() {
+        return (int) current.sum();
+    }
+
+    /**
+     * Set the current score to 0. Scores added while it is being reset may or may not be kept.
+     */
+    @Override
+    public void reset() {
+        current.reset();
+    }
+
+    private int stripe(String name) {
+        int hash = name.hashCode();
+        return (hash ^ (hash >>> 16)) & (stripes.length - 1);
+    }
+
+    /* An entry in the score order */
+    private static final class Entry {
+
+        private final String name;
+        private final int score;
+
+        Entry(String name, int score) {
+            this.name = name;
+            this.score = score;
+        }
+    }
+}
@@ -0,0 +1,591 @@
+package pacman.score;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * DurableScoreBoard - a ScoreBoard whose stored scores survive restarts, kept in a directory as a snapshot and a
+ * write-ahead log.
+ * Every accepted score is applied in memory and queued for a background writer, so setting a score never waits
+ * for the disk. The writer appends everything queued since its last write in one go and forces it to disk with
+ * a single fsync, so a burst of scores shares one fsync. sync() waits until the scores and snapshots queued
+ * before it are on disk.
+ * After every snapshotInterval logged scores, and on snapshot(), the writer compacts the log: it merges the
+ * scores in the log into a new snapshot while streaming the old one, then empties the log. The scores in memory
+ * are never copied, so the caller only pays for queueing the request. open() loads the snapshot and replays
+ * the log written after it, dropping a last record torn by a crash.
+ * If the writer fails, the failure is thrown by sync() and close() and every later change throws an
+ * IllegalStateException, so scores stop piling up in memory.
+ * The current score is not stored. Like ScoreBoard it must only be used from one thread at a time, and it must
+ * be closed to be sure every score reaches the disk.
+ *
+ * Both files are big endian:
+ * - SNAPSHOT_FILE holds MAGIC, VERSION and the sequence number of the last logged score it includes ( long ),
+ *   then each entry in lexicographic order of the name as the length of its name, the ASCII name and
+ *   the score, then a name length of 0, the number of entries and a CRC32 of everything before it.
+ * - LOG_FILE holds records of the length of the payload, the payload and a CRC32 of the payload. The payload
+ *   is the sequence number of the score ( long ), the score and the ASCII name.
+ */
+public class DurableScoreBoard extends ScoreBoard implements Closeable {
+
+    /** The first four bytes of a snapshot, "PACS". */
+    public static final int MAGIC = 0x50414353;
+    /** The version of the snapshot format written by this class. */
+    public static final int VERSION = 2;
+    /** The name of the snapshot file in the directory. */
+    public static final String SNAPSHOT_FILE = "scores.snapshot";
+    /** The name of the log file in the directory. */
+    public static final String LOG_FILE = "scores.log";
+
+    /* Size of the buffers used for writing and reading files */
+    private static final int BUFFER_SIZE = 1 << 16;
+    /* Bytes in a log record besides the name: length, sequence, score and checksum */
+    private static final int RECORD_OVERHEAD = 4 + 8 + 4 + 4;
+    /* Queued by snapshot() to have the writer compact the log */
+    private static final Object SNAPSHOT = new Object();
+    /* Queued after everything else by close() to stop the writer */
+    private static final Object STOP = new Object();
+
+    /* A logged score waiting for the writer */
+    private static final class Record {
+
+        private final long sequence;
+        private final String name;
+        private final int score;
+
+        Record(long sequence, String name, int score) {
+            this.sequence = sequence;
+            this.name = name;
+            this.score = score;
+        }
+    }
+
+    /* Receives the records read from the log */
+    private interface RecordVisitor {
+
+        void visit(long sequence, String name, int score);
+    }
+
+    /* Reads the entries of a snapshot one at a time, checking its checksum once the last has been read */
+    private static final class SnapshotReader implements Closeable {
+
+        private final Path path;
+        private final CRC32 crc = new CRC32();
+        private final DataInputStream in;
+        private final long size;
+        private final long sequence;
+        private String name;
+        private int score;
+        private int count;
+
+        SnapshotReader(Path path) throws IOException {
+            this.path = path;
+            size = Files.size(path);
+            in = new DataInputStream(new CheckedInputStream(
+                    new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE), crc));
+            try {
+                if (in.readInt() != MAGIC) {
+                    throw new IOException("not a score snapshot: " + path);
+                }
+                int version = in.readInt();
+                if (version != VERSION) {
+                    throw new IOException("unsupported score snapshot version " + version + ": " + path);
+                }
+                sequence = in.readLong();
+            } catch (IOException e) {
+                in.close();
+                throw e instanceof EOFException ? truncated((EOFException) e) : e;
+            }
+        }
+
+        /* Moves to the next entry, returning false once every entry has been read */
+        boolean next() throws IOException {
+            try {
+                int length = in.readInt();
+                // A length longer than the whole file cannot be read, so is not worth allocating
+                if (length < 0 || length > size) {
+                    throw new IOException("corrupt score snapshot: " + path);
+                }
+                if (length == 0) {
+                    int expectedCount = in.readInt();
+                    int expected = (int) crc.getValue();
+                    if (in.readInt() != expected || expectedCount != count) {
+                        throw new IOException("corrupt score snapshot: " + path);
+                    }
+                    return false;
+                }
+                byte[] bytes = new byte[length];
+                in.readFully(bytes);
+                name = new String(bytes, StandardCharsets.US_ASCII);
+                score = in.readInt();
+                count++;
+                return true;
+            } catch (EOFException e) {
+                throw truncated(e);
+            }
+        }
+
+        private IOException truncated(EOFException e) {
+            return new IOException("truncated score snapshot: " + path, e);
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    private final Path directory;
+    private final int snapshotInterval;
+    private final FileChannel log;
+    private final LinkedBlockingQueue<Object> queue = new LinkedBlockingQueue<Object>();
+    private final Thread writer;
+    /* Set while the files are being loaded, so loading does not log the scores again */
+    private boolean replaying;
+    private long sequence;
+    private int sinceSnapshot;
+    private boolean closed;
+    /* The number of records and snapshots queued so far */
+    private long queued;
+
+    /* Shared with the writer, guarded by the lock. failure is volatile so changes can check it without locking */
+    private final Object lock = new Object();
+    /* The number of records and snapshots on disk */
+    private long written;
+    private volatile IOException failure;
+
+    /* Only used by the writer: the sequence number of the last record it wrote and of the last in the snapshot */
+    private long lastWritten;
+    private long snapshotSequence;
+
+    private DurableScoreBoard(Path directory, int snapshotInterval) throws IOException {
+        this.directory = directory;
+        this.snapshotInterval = snapshotInterval;
+        replaying = true;
+        snapshotSequence = readSnapshot();
+        log = FileChannel.open(directory.resolve(LOG_FILE), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            // Makes sure a newly created log is still in the directory after a crash
+            syncDirectory();
+            sequence = Math.max(snapshotSequence, replayLog(snapshotSequence));
+        } catch (IOException | RuntimeException e) {
+            log.close();
+            throw e;
+        }
+        replaying = false;
+        lastWritten = sequence;
+        writer = new Thread(this::write, "DurableScoreBoard writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Opens the score board stored in a directory, creating the directory if it does not exist.
+     * Each snapshot streams the whole previous snapshot on the writer thread, so with many stored scores a
+     * larger snapshotInterval trades a longer log to replay on open for less snapshot I/O.
+     *
+     * @param directory the directory holding the snapshot and log.
+     * @param snapshotInterval the number of logged scores between automatic snapshots, or 0 for none.
+     * @return the recovered score board.
+     * @throws IOException if the files cannot be read or the snapshot is not valid.
+     * @throws IllegalArgumentException if snapshotInterval is negative.
+     * @throws NullPointerException if directory is null.
+     */
+    public static DurableScoreBoard open(Path directory, int snapshotInterval)
+    throws IOException, IllegalArgumentException, NullPointerException {
+        if (snapshotInterval < 0) {
+            throw new IllegalArgumentException("invalid snapshot interval: " + snapshotInterval);
+        }
+        Files.createDirectories(directory);
+        return new DurableScoreBoard(directory, snapshotInterval);
+    }
+
+    /**
+     * Sets the score as ScoreBoard.setScore() does and queues it to be logged.
+     *
+     * @param name the name of the scorer.
+     * @param score the score to be set to the scorer.
+     * @throws IllegalStateException if the score board is closed or its writer has failed.
+     */
+    @Override
+    public void setScore(String name, int score) throws IllegalStateException {
+        checkOpen();
+        super.setScore(name, score);
+        if (!replaying && score >= 0 && nameValid(name)) {
+            logScore(name, score);
+        }
+    }
+
+    /**
+     * Sets many scores at once as ScoreBoard.loadScores() does and queues the accepted entries to be logged.
+     *
+     * @param names the names of the scorers.
+     * @param values the score of each name.
+     * @param count the number of entries to load from the start of the arrays.
+     * @return the number of entries accepted and rejected.
+     * @throws NullPointerException if names or values is null.
+     * @throws IndexOutOfBoundsException if count is negative or longer than either array.
+     * @throws IllegalStateException if the score board is closed or its writer has failed.
+     */
+    @Override
+    public LoadResult loadScores(String[] names, int[] values, int count)
+    throws NullPointerException, IndexOutOfBoundsException, IllegalStateException {
+        checkOpen();
+        LoadResult result = super.loadScores(names, values, count);
+        if (!replaying) {
+            for (int i = 0; i < count; i++) {
+                if (values[i] >= 0 && nameValid(names[i])) {
+                    logScore(names[i], values[i]);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Queues a snapshot, which the writer takes by merging the log into the previous snapshot, after which the
+     * log is emptied. Returns straight away.
+     *
+     * @throws IllegalStateException if the score board is closed or its writer has failed.
+     */
+    public void snapshot() throws IllegalStateException {
+        checkOpen();
+        queue.add(SNAPSHOT);
+        queued++;
+        sinceSnapshot = 0;
+    }
+
+    /**
+     * Waits until every score set and snapshot taken so far is on disk.
+     *
+     * @throws IOException if the scores could not be written, or waiting was interrupted.
+     */
+    public void sync() throws IOException {
+        long target = queued;
+        synchronized (lock) {
+            while (written < target && failure == null) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("interrupted waiting for scores to be written");
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    /**
+     * Writes every queued score and snapshot to disk, then closes the log. Does nothing if already closed.
+     *
+     * @throws IOException if the scores could not be written, or waiting was interrupted.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        queue.add(STOP);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted waiting for scores to be written");
+        } finally {
+            if (!writer.isAlive()) {
+                log.close();
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void checkOpen() throws IllegalStateException {
+        if (closed) {
+            throw new IllegalStateException("score board is closed");
+        }
+        IOException failed = failure;
+        if (failed != null) {
+            throw new IllegalStateException("score writer failed", failed);
+        }
+    }
+
+    private void logScore(String name, int score) {
+        queue.add(new Record(++sequence, name, score));
+        queued++;
+        if (snapshotInterval > 0 && ++sinceSnapshot >= snapshotInterval) {
+            snapshot();
+        }
+    }
+
+    /* Runs on the writer thread until STOP is taken or writing fails */
+    private void write() {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        CRC32 crc = new CRC32();
+        List<Object> batch = new ArrayList<Object>();
+        try {
+            boolean stop = false;
+            while (!stop) {
+                // Waits for one item, then takes everything queued behind it as one batch
+                batch.clear();
+                batch.add(queue.take());
+                queue.drainTo(batch);
+                int count = 0;
+                boolean logged = false;
+                for (Object item : batch) {
+                    if (item instanceof Record) {
+                        Record record = (Record) item;
+                        buffer = append(buffer, record, crc);
+                        lastWritten = record.sequence;
+                        logged = true;
+                        count++;
+                    } else if (item == SNAPSHOT) {
+                        drain(buffer);
+                        compact();
+                        logged = false;
+                        count++;
+                    } else {
+                        stop = true;
+                    }
+                }
+                drain(buffer);
+                if (logged) {
+                    log.force(false);
+                }
+                synchronized (lock) {
+                    written += count;
+                    lock.notifyAll();
+                }
+            }
+        } catch (IOException e) {
+            fail(e);
+        } catch (InterruptedException e) {
+            fail(new InterruptedIOException("score writer was interrupted"));
+        }
+    }
+
+    private void fail(IOException e) {
+        synchronized (lock) {
+            failure = e;
+            lock.notifyAll();
+        }
+    }
+
+    /* Adds a record to the buffer, writing the buffer out first if the record does not fit */
+    private ByteBuffer append(ByteBuffer buffer, Record record, CRC32 crc) throws IOException {
+        byte[] name = record.name.getBytes(StandardCharsets.US_ASCII);
+        int size = RECORD_OVERHEAD + name.length;
+        if (buffer.remaining() < size) {
+            drain(buffer);
+            if (buffer.capacity() < size) {
+                buffer = ByteBuffer.allocate(size);
+            }
+        }
+        buffer.putInt(size - 8);
+        int start = buffer.position();
+        buffer.putLong(record.sequence);
+        buffer.putInt(record.score);
+        buffer.put(name);
+        crc.reset();
+        crc.update(buffer.array(), start, buffer.position() - start);
+        buffer.putInt((int) crc.getValue());
+        return buffer;
+    }
+
+    private void drain(ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            log.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /* Merges the log into a new snapshot and empties the log once the snapshot is durable */
+    private void compact() throws IOException {
+        // Later records for a name replace earlier ones. Records already in the snapshot are left in the log by
+        // a crash between moving the snapshot into place and emptying the log
+        TreeMap<String, Integer> changes = new TreeMap<String, Integer>();
+        readLog(log.size(), (recordSequence, name, score) -> {
+            if (recordSequence > snapshotSequence) {
+                changes.put(name, score);
+            }
+        });
+        writeSnapshot(changes);
+        snapshotSequence = lastWritten;
+        log.truncate(0);
+        log.force(false);
+    }
+
+    /* Writes a snapshot merging the previous one with changes to a temporary file, then moves it into place */
+    private void writeSnapshot(TreeMap<String, Integer> changes) throws IOException {
+        Path path = directory.resolve(SNAPSHOT_FILE);
+        Path temporary = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        CRC32 crc = new CRC32();
+        try (SnapshotReader previous = Files.exists(path) ? new SnapshotReader(path) : null;
+             FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                     StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream out = new DataOutputStream(new CheckedOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE), crc));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(lastWritten);
+            Iterator<Map.Entry<String, Integer>> pending = changes.entrySet().iterator();
+            Map.Entry<String, Integer> change = pending.hasNext() ? pending.next() : null;
+            boolean more = previous != null && previous.next();
+            int count = 0;
+            // Both are in name order, so one pass merges them with changes replacing old scores
+            while (more || change != null) {
+                int comparison = !more ? 1 : change == null ? -1 : previous.name.compareTo(change.getKey());
+                if (comparison < 0) {
+                    writeEntry(out, previous.name, previous.score);
+                    more = previous.next();
+                } else {
+                    writeEntry(out, change.getKey(), change.getValue());
+                    if (comparison == 0) {
+                        more = previous.next();
+                    }
+                    change = pending.hasNext() ? pending.next() : null;
+                }
+                count++;
+            }
+            out.writeInt(0);
+            out.writeInt(count);
+            out.writeInt((int) crc.getValue());
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        // The rename must be durable before the log it replaces is emptied
+        syncDirectory();
+    }
+
+    private static void writeEntry(DataOutputStream out, String name, int score) throws IOException {
+        byte[] bytes = name.getBytes(StandardCharsets.US_ASCII);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+        out.writeInt(score);
+    }
+
+    /* Forces the directory's entries to disk, so files created or renamed in it survive a crash */
+    private void syncDirectory() throws IOException {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(directory, StandardOpenOption.READ);
+        } catch (IOException e) {
+            // Some platforms cannot open directories, they make renames durable without it
+            return;
+        }
+        try (FileChannel opened = channel) {
+            opened.force(true);
+        }
+    }
+
+    /* Loads the snapshot if there is one, returning the sequence number of the last score it includes */
+    private long readSnapshot() throws IOException {
+        Path path = directory.resolve(SNAPSHOT_FILE);
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        String[] names = new String[16];
+        int[] scores = new int[16];
+        int count = 0;
+        try (SnapshotReader snapshot = new SnapshotReader(path)) {
+            while (snapshot.next()) {
+                if (count == names.length) {
+                    names = Arrays.copyOf(names, count * 2);
+                    scores = Arrays.copyOf(scores, count * 2);
+                }
+                names[count] = snapshot.name;
+                scores[count++] = snapshot.score;
+            }
+            loadScores(names, scores, count);
+            return snapshot.sequence;
+        }
+    }
+
+    /* Replays the log records after the snapshot, cutting off a torn last record, and returns the last sequence */
+    private long replayLog(long after) throws IOException {
+        long size = log.size();
+        String[][] names = {new String[16]};
+        int[][] scores = {new int[16]};
+        int[] count = new int[1];
+        long[] last = {after};
+        long valid = readLog(size, (recordSequence, name, score) -> {
+            if (recordSequence > after) {
+                if (count[0] == names[0].length) {
+                    names[0] = Arrays.copyOf(names[0], count[0] * 2);
+                    scores[0] = Arrays.copyOf(scores[0], count[0] * 2);
+                }
+                names[0][count[0]] = name;
+                scores[0][count[0]++] = score;
+                last[0] = Math.max(last[0], recordSequence);
+            }
+        });
+        if (valid < size) {
+            log.truncate(valid);
+        }
+        log.position(valid);
+        // Later records for a name replace earlier ones, as they did when they were logged
+        loadScores(names[0], scores[0], count[0]);
+        return last[0];
+    }
+
+    /* Reads log records up to size, stopping at a torn or corrupt record, and returns the bytes of valid records */
+    private long readLog(long size, RecordVisitor visitor) throws IOException {
+        long valid = 0;
+        CRC32 crc = new CRC32();
+        try (DataInputStream data = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(directory.resolve(LOG_FILE)), BUFFER_SIZE))) {
+            while (size - valid >= RECORD_OVERHEAD) {
+                int length = data.readInt();
+                // A record running past the end of the file was torn by a crash
+                if (length < 12 || length > size - valid - 8) {
+                    break;
+                }
+                byte[] payload = new byte[length];
+                data.readFully(payload);
+                crc.reset();
+                crc.update(payload, 0, length);
+                if (data.readInt() != (int) crc.getValue()) {
+                    break;
+                }
+                ByteBuffer record = ByteBuffer.wrap(payload);
+                long recordSequence = record.getLong();
+                int score = record.getInt();
+                visitor.visit(recordSequence, new String(payload, 12, length - 12, StandardCharsets.US_ASCII),
+                        score);
+                valid += length + 8;
+            }
+        }
+        return valid;
+    }
+}
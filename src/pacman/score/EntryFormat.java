@@ -0,0 +1,49 @@
+package pacman.score;
+
+/**
+ * EntryFormat - formats score board entries as "NAME : VALUE" without going through String.format(), which
+ * parses its pattern and boxes the value on every call.
+ */
+final class EntryFormat {
+
+    private static final char[] SEPARATOR = {' ', ':', ' '};
+
+    private EntryFormat() {
+    }
+
+    /**
+     * Formats an entry.
+     *
+     * @param name the name of the scorer.
+     * @param value the score.
+     * @return the entry formatted as "NAME : VALUE".
+     */
+    static String format(String name, int value) {
+        int digits = digits(value);
+        int length = name.length();
+        char[] chars = new char[length + SEPARATOR.length + digits];
+        name.getChars(0, length, chars, 0);
+        System.arraycopy(SEPARATOR, 0, chars, length, SEPARATOR.length);
+        // Writes the digits backwards from the end, negative values have a '-' in front
+        long remaining = Math.abs((long) value);
+        for (int i = chars.length - 1; i >= chars.length - digits; i--) {
+            chars[i] = (char) ('0' + remaining % 10);
+            remaining /= 10;
+        }
+        if (value < 0) {
+            chars[length + SEPARATOR.length] = '-';
+        }
+        return new String(chars);
+    }
+
+    /* Counts the characters needed to write value, including a '-' if it is negative */
+    private static int digits(int value) {
+        long remaining = Math.abs((long) value);
+        int digits = value < 0 ? 2 : 1;
+        while (remaining >= 10) {
+            remaining /= 10;
+            digits++;
+        }
+        return digits;
+    }
+}
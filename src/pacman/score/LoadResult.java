@@ -0,0 +1,49 @@
+package pacman.score;
+
+/**
+ * LoadResult - the number of entries a ScoreBoard.loadScores() call accepted and rejected.
+ */
+public class LoadResult {
+
+    private final int accepted;
+    private final int rejected;
+
+    /**
+     * Creates a load result.
+     *
+     * @param accepted the number of entries with a valid name and score.
+     * @param rejected the number of entries skipped.
+     */
+    LoadResult(int accepted, int rejected) {
+        this.accepted = accepted;
+        this.rejected = rejected;
+    }
+
+    /**
+     * Gets the number of entries accepted, including entries replaced by a later entry with the same name.
+     *
+     * @return the number of entries with a valid name and score.
+     */
+    public int getAccepted() {
+        return accepted;
+    }
+
+    /**
+     * Gets the number of entries rejected because of an invalid name or score.
+     *
+     * @return the number of entries skipped.
+     */
+    public int getRejected() {
+        return rejected;
+    }
+
+    /**
+     * Summarises the result.
+     *
+     * @return the counts formatted as such: "ACCEPTED accepted, REJECTED rejected".
+     */
+    @Override
+    public String toString() {
+        return accepted + " accepted, " + rejected + " rejected";
+    }
+}
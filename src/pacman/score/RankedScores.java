@@ -0,0 +1,261 @@
+package pacman.score;
+
+import java.util.Arrays;
+
+/**
+ * RankedScores - an indexable skip list of scores ordered by score in descending order then by name in
+ * lexicographic order, as ScoreBoard.getEntriesByScore() lists them.
+ * Every link records how many entries it skips, so finding the rank of an entry or the entry at a rank takes
+ * O(log n) expected time, as do adding and removing entries.
+ * Names are not checked, the ScoreBoard keeps at most one entry per name.
+ */
+class RankedScores {
+
+    /**
+     * An entry in the skip list.
+     */
+    static final class Node {
+
+        final String name;
+        final int score;
+        /* The next node on each level and the number of ranks that link moves forward */
+        final Node[] next;
+        final int[] span;
+
+        Node(String name, int score, int levels) {
+            this.name = name;
+            this.score = score;
+            next = new Node[levels];
+            span = new int[levels];
+        }
+
+        /**
+         * Gets the entry ranked after this one.
+         *
+         * @return the next entry, or null if this is the last.
+         */
+        Node following() {
+            return next[0];
+        }
+    }
+
+    /* Levels are picked from pairs of 30 random bits, so no node is taller than this */
+    private static final int MAX_LEVEL = 16;
+
+    private final Node head = new Node(null, 0, MAX_LEVEL);
+    private int level = 1;
+    private int size;
+    /* State of the xorshift generator choosing node levels, seeded so layouts are repeatable */
+    private int seed = 0x2545F491;
+
+    /* Search paths reused between updates, so only the new node is allocated */
+    private final Node[] update = new Node[MAX_LEVEL];
+    private final int[] rank = new int[MAX_LEVEL];
+
+    /**
+     * Gets the number of entries.
+     *
+     * @return the number of entries.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Adds an entry, which must not already be in the list.
+     *
+     * @param name the name of the scorer.
+     * @param score the score.
+     */
+    void add(String name, int score) {
+        Node node = head;
+        for (int i = level - 1; i >= 0; i--) {
+            rank[i] = i == level - 1 ? 0 : rank[i + 1];
+            while (node.next[i] != null && before(node.next[i], score, name)) {
+                rank[i] += node.span[i];
+                node = node.next[i];
+            }
+            update[i] = node;
+        }
+        int levels = randomLevel();
+        if (levels > level) {
+            for (int i = level; i < levels; i++) {
+                rank[i] = 0;
+                update[i] = head;
+                head.span[i] = size;
+            }
+            level = levels;
+        }
+        Node added = new Node(name, score, levels);
+        for (int i = 0; i < levels; i++) {
+            added.next[i] = update[i].next[i];
+            update[i].next[i] = added;
+            added.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = rank[0] - rank[i] + 1;
+        }
+        // Links above the new node now skip over it
+        for (int i = levels; i < level; i++) {
+            update[i].span[i]++;
+        }
+        size++;
+    }
+
+    /**
+     * Removes an entry.
+     *
+     * @param name the name of the scorer.
+     * @param score the score stored for the name.
+     * @return true if the entry was removed, false if it was not in the list.
+     */
+    boolean remove(String name, int score) {
+        Node node = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (node.next[i] != null && before(node.next[i], score, name)) {
+                node = node.next[i];
+            }
+            update[i] = node;
+        }
+        Node removed = node.next[0];
+        if (removed == null || removed.score != score || !removed.name.equals(name)) {
+            return false;
+        }
+        for (int i = 0; i < level; i++) {
+            if (update[i].next[i] == removed) {
+                update[i].span[i] += removed.span[i] - 1;
+                update[i].next[i] = removed.next[i];
+            } else {
+                update[i].span[i]--;
+            }
+        }
+        while (level > 1 && head.next[level - 1] == null) {
+            level--;
+        }
+        size--;
+        return true;
+    }
+
+    /**
+     * Finds the rank of an entry, the highest score having rank 1.
+     *
+     * @param name the name of the scorer.
+     * @param score the score stored for the name.
+     * @return the rank of the entry, or 0 if it is not in the list.
+     */
+    int rankOf(String name, int score) {
+        Node node = head;
+        int traversed = 0;
+        for (int i = level - 1; i >= 0; i--) {
+            // Moves forward while the next entry is not after the one being looked for
+            while (node.next[i] != null && !before(score, name, node.next[i])) {
+                traversed += node.span[i];
+                node = node.next[i];
+            }
+            if (node != head && node.score == score && node.name.equals(name)) {
+                return traversed;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Finds the entry at a rank.
+     *
+     * @param rank the rank, from 1 to size().
+     * @return the entry at the rank, or null if rank is out of range.
+     */
+    Node nodeAt(int rank) {
+        if (rank < 1 || rank > size) {
+            return null;
+        }
+        Node node = head;
+        int traversed = 0;
+        for (int i = level - 1; i >= 0; i--) {
+            while (node.next[i] != null && traversed + node.span[i] <= rank) {
+                traversed += node.span[i];
+                node = node.next[i];
+            }
+            if (traversed == rank) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the highest ranked entry.
+     *
+     * @return the first entry, or null if the list is empty.
+     */
+    Node first() {
+        return head.next[0];
+    }
+
+    /**
+     * Replaces every entry with entries given in rank order, linking each node onto the end of every level it
+     * reaches so no searching is needed.
+     *
+     * @param names the names of the scorers.
+     * @param scores the score of each name.
+     * @param order the indexes of the entries in rank order.
+     * @param count the number of entries.
+     */
+    void rebuild(String[] names, int[] scores, int[] order, int count) {
+        clear();
+        // The last node on each level and its rank
+        Node[] tails = update;
+        int[] tailRanks = rank;
+        Arrays.fill(tails, head);
+        Arrays.fill(tailRanks, 0);
+        for (int r = 1; r <= count; r++) {
+            int index = order[r - 1];
+            int levels = randomLevel();
+            Node added = new Node(names[index], scores[index], levels);
+            for (int i = 0; i < levels; i++) {
+                tails[i].next[i] = added;
+                tails[i].span[i] = r - tailRanks[i];
+                tails[i] = added;
+                tailRanks[i] = r;
+            }
+            level = Math.max(level, levels);
+        }
+        for (int i = 0; i < level; i++) {
+            tails[i].span[i] = count - tailRanks[i];
+        }
+        size = count;
+    }
+
+    /**
+     * Removes every entry.
+     */
+    void clear() {
+        Arrays.fill(head.next, null);
+        Arrays.fill(head.span, 0);
+        level = 1;
+        size = 0;
+    }
+
+    /* Tells if node comes before the entry (score, name) */
+    private static boolean before(Node node, int score, String name) {
+        if (node.score != score) {
+            return node.score > score;
+        }
+        return node.name.compareTo(name) < 0;
+    }
+
+    /* Tells if the entry (score, name) comes before node */
+    private static boolean before(int score, String name, Node node) {
+        if (node.score != score) {
+            return score > node.score;
+        }
+        return name.compareTo(node.name) < 0;
+    }
+
+    /* Picks a level for a new node, each level being a quarter as likely as the one below */
+    private int randomLevel() {
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        int levels = 1 + Integer.numberOfTrailingZeros(seed | (1 << 30)) / 2;
+        return Math.min(levels, MAX_LEVEL);
+    }
+}
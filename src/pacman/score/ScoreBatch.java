@@ -0,0 +1,232 @@
+package pacman.score;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.SortedMap;
+
+/**
+ * ScoreBatch - helpers for loading many scores at once: a stable sort of entry indexes and a read-only sorted
+ * map over parallel name and score arrays.
+ */
+final class ScoreBatch {
+
+    /**
+     * Compares two entries by their index.
+     */
+    interface IndexOrder {
+
+        /**
+         * Compares two entries.
+         *
+         * @param a the index of the first entry.
+         * @param b the index of the second entry.
+         * @return a negative number, zero or a positive number as a comes before, with or after b.
+         */
+        int compare(int a, int b);
+    }
+
+    /* Runs this short are insertion sorted before merging */
+    private static final int RUN = 32;
+
+    private ScoreBatch() {
+    }
+
+    /**
+     * Sorts the first count indexes of order, keeping equal entries in the order they were in.
+     *
+     * @param order the indexes to sort.
+     * @param count the number of indexes to sort.
+     * @param comparison the order to sort the entries into.
+     */
+    static void sort(int[] order, int count, IndexOrder comparison) {
+        for (int start = 0; start < count; start += RUN) {
+            int end = Math.min(start + RUN, count);
+            for (int i = start + 1; i < end; i++) {
+                int index = order[i];
+                int j = i - 1;
+                while (j >= start && comparison.compare(order[j], index) > 0) {
+                    order[j + 1] = order[j];
+                    j--;
+                }
+                order[j + 1] = index;
+            }
+        }
+        int[] from = order;
+        int[] to = new int[count];
+        for (int width = RUN; width < count; width *= 2) {
+            for (int start = 0; start < count; start += 2 * width) {
+                int middle = Math.min(start + width, count);
+                int end = Math.min(start + 2 * width, count);
+                int left = start;
+                int right = middle;
+                for (int k = start; k < end; k++) {
+                    // Takes from the left run on ties so the sort stays stable
+                    if (right >= end || (left < middle && comparison.compare(from[left], from[right]) <= 0)) {
+                        to[k] = from[left++];
+                    } else {
+                        to[k] = from[right++];
+                    }
+                }
+            }
+            int[] swap = from;
+            from = to;
+            to = swap;
+        }
+        if (from != order) {
+            System.arraycopy(from, 0, order, 0, count);
+        }
+    }
+
+    /**
+     * A read-only map over names in lexicographic order and their scores. TreeMap copies it in linear time
+     * without comparing keys. Range views share the arrays and find their bounds by binary search, keys past
+     * the bounds of a view are clamped to them.
+     */
+    static final class SortedView extends AbstractMap<String, Integer> implements SortedMap<String, Integer> {
+
+        private final String[] names;
+        private final int[] scores;
+        /* The view covers indexes from, inclusive, to to, exclusive */
+        private final int from;
+        private final int to;
+
+        /**
+         * Creates a view over the first count names and scores.
+         *
+         * @param names the names, in lexicographic order without repeats.
+         * @param scores the score of each name.
+         * @param count the number of entries.
+         */
+        SortedView(String[] names, int[] scores, int count) {
+            this(names, scores, 0, count);
+        }
+
+        private SortedView(String[] names, int[] scores, int from, int to) {
+            this.names = names;
+            this.scores = scores;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public Comparator<? super String> comparator() {
+            // The natural ordering, matching ScoreBoard's TreeMap
+            return null;
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return indexOf(key) >= 0;
+        }
+
+        @Override
+        public Integer get(Object key) {
+            int index = indexOf(key);
+            return index >= 0 ? scores[index] : null;
+        }
+
+        @Override
+        public Set<Entry<String, Integer>> entrySet() {
+            return new AbstractSet<Entry<String, Integer>>() {
+                @Override
+                public Iterator<Entry<String, Integer>> iterator() {
+                    return new Iterator<Entry<String, Integer>>() {
+                        private int next = from;
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < to;
+                        }
+
+                        @Override
+                        public Entry<String, Integer> next() {
+                            if (next >= to) {
+                                throw new NoSuchElementException();
+                            }
+                            Entry<String, Integer> entry =
+                                    new SimpleImmutableEntry<String, Integer>(names[next], scores[next]);
+                            next++;
+                            return entry;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return to - from;
+                }
+            };
+        }
+
+        @Override
+        public SortedMap<String, Integer> subMap(String fromKey, String toKey)
+        throws NullPointerException, IllegalArgumentException {
+            if (fromKey.compareTo(toKey) > 0) {
+                throw new IllegalArgumentException("fromKey is after toKey");
+            }
+            return new SortedView(names, scores, lowerBound(fromKey), lowerBound(toKey));
+        }
+
+        @Override
+        public SortedMap<String, Integer> headMap(String toKey) throws NullPointerException {
+            return new SortedView(names, scores, from, lowerBound(toKey));
+        }
+
+        @Override
+        public SortedMap<String, Integer> tailMap(String fromKey) throws NullPointerException {
+            return new SortedView(names, scores, lowerBound(fromKey), to);
+        }
+
+        @Override
+        public String firstKey() {
+            if (from == to) {
+                throw new NoSuchElementException();
+            }
+            return names[from];
+        }
+
+        @Override
+        public String lastKey() {
+            if (from == to) {
+                throw new NoSuchElementException();
+            }
+            return names[to - 1];
+        }
+
+        /* Finds the first index in the view whose name is not before key, or to if there is none */
+        private int lowerBound(String key) {
+            if (key == null) {
+                throw new NullPointerException();
+            }
+            int low = from;
+            int high = to;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (names[middle].compareTo(key) < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        /* Finds the index of key in the view, or -1 if it is not there */
+        private int indexOf(Object key) {
+            if (!(key instanceof String)) {
+                return -1;
+            }
+            int index = lowerBound((String) key);
+            return index < to && names[index].equals(key) ? index : -1;
+        }
+    }
+}
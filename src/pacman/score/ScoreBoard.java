@@ -16,15 +16,45 @@ import static java.util.Map.Entry.comparingByValue;
  */
 public class ScoreBoard {
 
+    /* Marks the characters allowed in names */
+    private static final boolean[] NAME_CHARACTERS = new boolean[128];
+
+    static {
+        for (char c = 'A'; c <= 'Z'; c++) {
+            NAME_CHARACTERS[c] = true;
+            NAME_CHARACTERS[Character.toLowerCase(c)] = true;
+        }
+        for (char c = '0'; c <= '9'; c++) {
+            NAME_CHARACTERS[c] = true;
+        }
+    }
+
     private int score;
-    private Map<String, Integer> scoreboard = new TreeMap<String, Integer>();
-    private Map<Integer, String> scoreboardByScore = new TreeMap<Integer, String>(Collections.reverseOrder());
+    private NavigableMap<String, Integer> scoreboard;
+    private RankedScores scoreboardByScore;
+    /* Counts changes to the ranking so score iterators can detect them */
+    private int modifications;
 
     /**
      * Creates a score board that has no entries and a current score of 0.
      */
     public ScoreBoard() {
+        this(true);
+    }
+
+    /**
+     * Creates a score board that has no entries and a current score of 0. Subclasses which keep the stored
+     * scores themselves pass false to leave this class's orders unallocated, and must then override every
+     * method which reads or writes the stored scores.
+     *
+     * @param stored true to keep the stored scores in this class.
+     */
+    ScoreBoard(boolean stored) {
         score = 0;
+        if (stored) {
+            scoreboard = new TreeMap<String, Integer>();
+            scoreboardByScore = new RankedScores();
+        }
     }
 
     /**
@@ -35,12 +65,102 @@ public class ScoreBoard {
      * @return List of scores formatted as "NAME : VALUE" omin the order described above or an empty list if no entries are stored.
      */
     public List<String> getEntriesByName() {
-        List<String> list = new ArrayList<String>();
+        List<String> list = new ArrayList<String>(scoreboard.size());
         // Iterate over scoreboard and add elements to a return list.
-        scoreboard.forEach((k, v) -> list.add(String.format("%s : %d", k, v)));
+        scoreboard.forEach((k, v) -> list.add(EntryFormat.format(k, v)));
         return list;
     }
 
+    /**
+     * Gets a page of the entries in the order of getEntriesByName(), starting after a given name.
+     * Passing the last name of a page as after gets the next page, even if entries were set in between.
+     *
+     * @param after the name to start after, or null to start at the first entry.
+     * @param limit the most entries to get.
+     * @return List of at most limit scores formatted as "NAME : VALUE".
+     * @throws IllegalArgumentException if limit is negative.
+     */
+    public List<String> pageByName(String after, int limit) throws IllegalArgumentException {
+        if (limit < 0) {
+            throw new IllegalArgumentException("invalid page of " + limit);
+        }
+        Map<String, Integer> tail = after == null ? scoreboard : scoreboard.tailMap(after, false);
+        List<String> list = new ArrayList<String>(Math.min(limit, tail.size()));
+        for (Map.Entry<String, Integer> entry : tail.entrySet()) {
+            if (list.size() == limit) {
+                break;
+            }
+            list.add(EntryFormat.format(entry.getKey(), entry.getValue()));
+        }
+        return list;
+    }
+
+    /**
+     * Iterates over the entries in the order of getEntriesByName(), formatting each entry as "NAME : VALUE" only
+     * when it is reached. The iterator fails with a ConcurrentModificationException if a new name is set, or
+     * scores are loaded, while it is in use.
+     *
+     * @return an iterator over the formatted entries.
+     */
+    public Iterator<String> iterateByName() {
+        NavigableMap<String, Integer> iterated = scoreboard;
+        Iterator<Map.Entry<String, Integer>> entries = iterated.entrySet().iterator();
+        return new Iterator<String>() {
+            @Override
+            public boolean hasNext() {
+                return entries.hasNext();
+            }
+
+            @Override
+            public String next() {
+                // Loading a large batch replaces the map instead of changing it
+                if (scoreboard != iterated) {
+                    throw new ConcurrentModificationException();
+                }
+                Map.Entry<String, Integer> entry = entries.next();
+                return EntryFormat.format(entry.getKey(), entry.getValue());
+            }
+        };
+    }
+
+    /**
+     * Iterates over the entries in the order of getEntriesByScore(), starting at an offset and formatting each
+     * entry as "NAME : VALUE" only when it is reached. The iterator fails with a
+     * ConcurrentModificationException if a score is set while it is in use.
+     *
+     * @param offset the number of higher scores to skip.
+     * @return an iterator over the formatted entries.
+     * @throws IllegalArgumentException if offset is negative.
+     */
+    public Iterator<String> iterateByScore(int offset) throws IllegalArgumentException {
+        if (offset < 0) {
+            throw new IllegalArgumentException("invalid offset: " + offset);
+        }
+        RankedScores.Node first = scoreboardByScore.nodeAt(offset + 1);
+        int expected = modifications;
+        return new Iterator<String>() {
+            private RankedScores.Node node = first;
+
+            @Override
+            public boolean hasNext() {
+                return node != null;
+            }
+
+            @Override
+            public String next() {
+                if (modifications != expected) {
+                    throw new ConcurrentModificationException();
+                }
+                if (node == null) {
+                    throw new NoSuchElementException();
+                }
+                String entry = EntryFormat.format(node.name, node.score);
+                node = node.following();
+                return entry;
+            }
+        };
+    }
+
     /**
      * Gets the stored entries ordered by the score in descending order ( 9999 first then 9998 and so on ...)
      * then in lexicographic order of the name if the scores match. The format should match the one described in
@@ -49,17 +169,54 @@ public class ScoreBoard {
      * @return List of scores formatted as "NAME : VALUE" in the order described above or an empty list if no entries are stored.
      */
     public List<String> getEntriesByScore() {
-        sortByScore();
-        List<String> list = new ArrayList<String>();
-        // Iterate over scoreboardByScore and add elements to a return list.
-        scoreboardByScore.forEach((k, v) -> list.add(String.format("%s : %d", v, k)));
-        return list;
+        return page(0, scoreboardByScore.size());
     }
 
-    private void sortByScore() {
-        // Iterate over key, value pairs of the main scoreboard and put them in scoreboardByScore with key and value
-        // swapped.
-        scoreboard.forEach((k,v) -> scoreboardByScore.put(v, k));
+    /**
+     * Gets the rank of a scorer, the highest score having rank 1 and equal scores being ranked by name as in
+     * getEntriesByScore().
+     *
+     * @param name the name of the scorer.
+     * @return the rank of the scorer, or -1 if no score is stored for the name.
+     */
+    public int rankOf(String name) {
+        Integer stored = name == null ? null : scoreboard.get(name);
+        if (stored == null) {
+            return -1;
+        }
+        return scoreboardByScore.rankOf(name, stored);
+    }
+
+    /**
+     * Gets the highest scores in the order of getEntriesByScore().
+     *
+     * @param k the number of scores to get.
+     * @return List of at most k scores formatted as "NAME : VALUE".
+     * @throws IllegalArgumentException if k is negative.
+     */
+    public List<String> topK(int k) throws IllegalArgumentException {
+        return page(0, k);
+    }
+
+    /**
+     * Gets a page of the scores in the order of getEntriesByScore().
+     *
+     * @param offset the number of higher scores to skip.
+     * @param limit the most scores to get.
+     * @return List of at most limit scores formatted as "NAME : VALUE", empty if offset is past the last score.
+     * @throws IllegalArgumentException if offset or limit is negative.
+     */
+    public List<String> page(int offset, int limit) throws IllegalArgumentException {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("invalid page of " + limit + " from " + offset);
+        }
+        List<String> list = new ArrayList<String>(Math.min(limit, Math.max(0, scoreboardByScore.size() - offset)));
+        // Finds the first entry of the page, then walks forward from it
+        RankedScores.Node node = offset < scoreboardByScore.size() ? scoreboardByScore.nodeAt(offset + 1) : null;
+        for (; node != null && list.size() < limit; node = node.following()) {
+            list.add(EntryFormat.format(node.name, node.score));
+        }
+        return list;
     }
 
     /**
@@ -75,33 +232,36 @@ public class ScoreBoard {
     public void setScore(String name, int score) {
         if (nameValid(name)) {
             if (score >= 0) {
-                // Puts name and score inside scoreboard, replacing any current pair with key equal to name.
-                if (scoreboard.containsKey(name)) {
-                    scoreboard.replace(name, score);
-                } else {
-                    scoreboard.put(name, score);
-                }
+                put(name, score);
             }
         }
     }
 
-
-    private static boolean nameValid(String name) {
-        if (name != null) {
-            if (name.length() > 0) {
-                // Iterates over characters of the name and checking if the character is not a letter or digit.
-                for (int i = 0; i < name.length(); i++) {
-                    if (!(Character.isLetterOrDigit(name.charAt(i)))) {
-                        return false;
-                    }
-                }
-            } else {
-                return false;
+    /* Puts a valid name and score in both orders */
+    private void put(String name, int score) {
+        // Puts name and score inside scoreboard, replacing any current pair with key equal to name.
+        Integer previous = scoreboard.put(name, score);
+        if (previous == null || previous != score) {
+            // Moves the name to its new rank
+            if (previous != null) {
+                scoreboardByScore.remove(name, previous);
             }
+            scoreboardByScore.add(name, score);
+            modifications++;
         }
-        else {
+    }
+
+    static boolean nameValid(String name) {
+        if (name == null || name.length() == 0) {
             return false;
         }
+        // Iterates over characters of the name and checking if the character is not A to Z, a to z or 0 to 9.
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c >= NAME_CHARACTERS.length || !NAME_CHARACTERS[c]) {
+                return false;
+            }
+        }
         return true;
     }
 
@@ -117,9 +277,114 @@ public class ScoreBoard {
      */
     public void setScores(Map<String, Integer> scores) {
         if (scores != null) {
-            /* Loop over elements of the map calling setScore for each */
-            scores.forEach((k, v) -> setScore(k, v));
+            loadScores(scores);
+        }
+    }
+
+    /**
+     * Sets a collection of scores as setScores() does, reporting how many were accepted and rejected.
+     * Entries with a null score are rejected.
+     *
+     * @param scores to add to scoreboard.
+     * @return the number of entries accepted and rejected.
+     * @throws NullPointerException if scores is null.
+     */
+    public LoadResult loadScores(Map<String, Integer> scores) throws NullPointerException {
+        String[] names = new String[scores.size()];
+        int[] values = new int[names.length];
+        int count = 0;
+        int rejected = 0;
+        for (Map.Entry<String, Integer> entry : scores.entrySet()) {
+            if (entry.getValue() == null) {
+                rejected++;
+            } else {
+                names[count] = entry.getKey();
+                values[count++] = entry.getValue();
+            }
+        }
+        LoadResult result = loadScores(names, values, count);
+        return new LoadResult(result.getAccepted(), result.getRejected() + rejected);
+    }
+
+    /**
+     * Sets many scores at once, given as parallel arrays of names and scores. Each entry is accepted or
+     * rejected as setScore() would, and a later entry for a name replaces an earlier one.
+     * Large batches are sorted once and merged with the stored scores in a single pass, rebuilding both orders,
+     * rather than being set one at a time.
+     *
+     * @param names the names of the scorers.
+     * @param values the score of each name.
+     * @param count the number of entries to load from the start of the arrays.
+     * @return the number of entries accepted and rejected.
+     * @throws NullPointerException if names or values is null.
+     * @throws IndexOutOfBoundsException if count is negative or longer than either array.
+     */
+    public LoadResult loadScores(String[] names, int[] values, int count)
+    throws NullPointerException, IndexOutOfBoundsException {
+        if (count < 0 || count > names.length || count > values.length) {
+            throw new IndexOutOfBoundsException("cannot load " + count + " entries");
+        }
+        int[] order = new int[count];
+        int accepted = 0;
+        for (int i = 0; i < count; i++) {
+            if (values[i] >= 0 && nameValid(names[i])) {
+                order[accepted++] = i;
+            }
+        }
+        ScoreBatch.sort(order, accepted, (a, b) -> names[a].compareTo(names[b]));
+        // Keeps the last entry for each name, which the stable sort leaves last among equal names
+        int unique = 0;
+        for (int i = 0; i < accepted; i++) {
+            if (i + 1 == accepted || !names[order[i]].equals(names[order[i + 1]])) {
+                order[unique++] = order[i];
+            }
+        }
+        if (unique == 0) {
+            return new LoadResult(accepted, count - accepted);
+        }
+        if (unique < scoreboard.size() / 16) {
+            // Small batches are cheaper to set one at a time than rebuilding everything
+            for (int i = 0; i < unique; i++) {
+                put(names[order[i]], values[order[i]]);
+            }
+        } else {
+            merge(names, values, order, unique);
+        }
+        return new LoadResult(accepted, count - accepted);
+    }
+
+    /* Merges sorted, unique entries with the stored scores and rebuilds both orders from the result */
+    private void merge(String[] names, int[] values, int[] order, int count) {
+        String[] mergedNames = new String[scoreboard.size() + count];
+        int[] mergedValues = new int[mergedNames.length];
+        int merged = 0;
+        Iterator<Map.Entry<String, Integer>> stored = scoreboard.entrySet().iterator();
+        Map.Entry<String, Integer> entry = stored.hasNext() ? stored.next() : null;
+        int i = 0;
+        while (entry != null || i < count) {
+            int comparison = entry == null ? 1 : i == count ? -1 : entry.getKey().compareTo(names[order[i]]);
+            if (comparison < 0) {
+                mergedNames[merged] = entry.getKey();
+                mergedValues[merged++] = entry.getValue();
+            } else {
+                mergedNames[merged] = names[order[i]];
+                mergedValues[merged++] = values[order[i]];
+                i++;
+            }
+            // The new score replaces a stored score for the same name
+            if (comparison <= 0) {
+                entry = stored.hasNext() ? stored.next() : null;
+            }
+        }
+        scoreboard = new TreeMap<String, Integer>(new ScoreBatch.SortedView(mergedNames, mergedValues, merged));
+        // Names are already in order, so a stable sort by score leaves equal scores ordered by name
+        int[] ranks = new int[merged];
+        for (int r = 0; r < merged; r++) {
+            ranks[r] = r;
         }
+        ScoreBatch.sort(ranks, merged, (a, b) -> Integer.compare(mergedValues[b], mergedValues[a]));
+        scoreboardByScore.rebuild(mergedNames, mergedValues, ranks, merged);
+        modifications++;
     }
 
     /**
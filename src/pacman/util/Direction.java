@@ -7,7 +7,7 @@ public enum Direction {
     LEFT(new Position(-1, 0)),
     RIGHT(new Position(1, 0)),
     UP(new Position(0, -1)),
-    DOWN(new Position(-1, 0));
+    DOWN(new Position(0, 1));
 
     private Position offset;
 
@@ -0,0 +1,184 @@
+package pacman.util;
+
+import pacman.board.PacmanBoard;
+
+import java.util.Arrays;
+
+/**
+ * GridIntMap - a map from the tiles of a board to int values, held densely as one int per tile.
+ * Every lookup is a single array read, which suits maps covering a large part of the board
+ * such as visit counts or last seen ticks.
+ */
+public class GridIntMap {
+
+    private final int width;
+    private final int height;
+    private final int missingValue;
+    private final int[] values;
+    /* One bit per tile, set if the tile holds a value */
+    private final long[] present;
+    private int size;
+
+    /**
+     * Creates an empty map for a board of the given dimensions.
+     *
+     * @param width the width of the board.
+     * @param height the height of the board.
+     * @param missingValue the value returned by get() for tiles that hold no value.
+     * @throws IllegalArgumentException if either dimension is not positive or the board is too large.
+     */
+    public GridIntMap(int width, int height, int missingValue) throws IllegalArgumentException {
+        if (width < 1 || height < 1 || (long) width * height > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("invalid board dimensions: " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+        this.missingValue = missingValue;
+        values = new int[width * height];
+        present = new long[(values.length + 63) >>> 6];
+        if (missingValue != 0) {
+            Arrays.fill(values, missingValue);
+        }
+    }
+
+    /**
+     * Creates an empty map sized to a board.
+     *
+     * @param board the board whose tiles the map covers.
+     * @param missingValue the value returned by get() for tiles that hold no value.
+     * @return a map covering every tile of board.
+     * @throws NullPointerException if board is null.
+     */
+    public static GridIntMap forBoard(PacmanBoard board, int missingValue) throws NullPointerException {
+        return new GridIntMap(board.getWidth(), board.getHeight(), missingValue);
+    }
+
+    private int index(int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            throw new IndexOutOfBoundsException("position (" + x + ", " + y + ") is outside the board");
+        }
+        return y * width + x;
+    }
+
+    /**
+     * Gets the number of tiles holding a value.
+     *
+     * @return the number of entries.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the tile holds a value.
+     *
+     * @param x - coordinate
+     * @param y - coordinate
+     * @return true if ( x, y ) holds a value, false otherwise.
+     * @throws IndexOutOfBoundsException if the tile is off the board.
+     */
+    public boolean containsKey(int x, int y) throws IndexOutOfBoundsException {
+        int index = index(x, y);
+        return (present[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Gets the value of a tile.
+     *
+     * @param x - coordinate
+     * @param y - coordinate
+     * @return the value of ( x, y ), or the missing value if it holds none.
+     * @throws IndexOutOfBoundsException if the tile is off the board.
+     */
+    public int get(int x, int y) throws IndexOutOfBoundsException {
+        return values[index(x, y)];
+    }
+
+    /**
+     * Gets the value of the tile at a position.
+     *
+     * @param position the position of the tile.
+     * @return the value of the tile, or the missing value if it holds none.
+     * @throws IndexOutOfBoundsException if the tile is off the board.
+     * @throws NullPointerException if position is null.
+     */
+    public int get(Position position) throws IndexOutOfBoundsException, NullPointerException {
+        return get(position.getX(), position.getY());
+    }
+
+    /**
+     * Sets the value of a tile.
+     *
+     * @param x - coordinate
+     * @param y - coordinate
+     * @param value the value to store.
+     * @return the previous value of the tile, or the missing value if it held none.
+     * @throws IndexOutOfBoundsException if the tile is off the board.
+     */
+    public int put(int x, int y, int value) throws IndexOutOfBoundsException {
+        int index = index(x, y);
+        markPresent(index);
+        int previous = values[index];
+        values[index] = value;
+        return previous;
+    }
+
+    /**
+     * Adds to the value of a tile, a tile holding no value starts at 0.
+     *
+     * @param x - coordinate
+     * @param y - coordinate
+     * @param delta the amount to add.
+     * @return the new value of the tile.
+     * @throws IndexOutOfBoundsException if the tile is off the board.
+     */
+    public int add(int x, int y, int delta) throws IndexOutOfBoundsException {
+        int index = index(x, y);
+        if (markPresent(index)) {
+            values[index] = 0;
+        }
+        values[index] += delta;
+        return values[index];
+    }
+
+    /**
+     * Removes the value of a tile.
+     *
+     * @param x - coordinate
+     * @param y - coordinate
+     * @return the value the tile held, or the missing value if it held none.
+     * @throws IndexOutOfBoundsException if the tile is off the board.
+     */
+    public int remove(int x, int y) throws IndexOutOfBoundsException {
+        int index = index(x, y);
+        long bit = 1L << index;
+        if ((present[index >>> 6] & bit) == 0) {
+            return missingValue;
+        }
+        present[index >>> 6] &= ~bit;
+        size--;
+        int removed = values[index];
+        values[index] = missingValue;
+        return removed;
+    }
+
+    /**
+     * Removes every value.
+     */
+    public void clear() {
+        Arrays.fill(values, missingValue);
+        Arrays.fill(present, 0);
+        size = 0;
+    }
+
+    /* Marks a tile as holding a value, returning true if it did not hold one before */
+    private boolean markPresent(int index) {
+        long bit = 1L << index;
+        if ((present[index >>> 6] & bit) != 0) {
+            return false;
+        }
+        present[index >>> 6] |= bit;
+        size++;
+        return true;
+    }
+}
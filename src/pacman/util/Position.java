@@ -2,11 +2,17 @@ package pacman.util;
 
 /**
  * A position used to represent objects in a 2d space.
+ * Positions are immutable. Position.of() returns shared instances for small coordinates, and the static
+ * pack helpers encode a position as a single long so hot loops can work with coordinates without allocating.
  */
 public class Position {
 
-    private int x;
-    private int y;
+    /* Positions with both coordinates in [0, CACHE_SIZE) are shared by of() */
+    private static final int CACHE_SIZE = 256;
+    private static final Position[] CACHE = new Position[CACHE_SIZE * CACHE_SIZE];
+
+    private final int x;
+    private final int y;
 
     /**
      * Constructor: creates a position at the given x and y coordinates.
@@ -19,6 +25,102 @@ public class Position {
         this.y = y;
     }
 
+    /**
+     * Gets a position at the given x and y coordinates. Positions with both coordinates in [0, 256) are
+     * shared instances, any other position is newly created.
+     *
+     * @param x - coordinate
+     * @param y - coordinate
+     * @return a position at ( x, y ).
+     */
+    public static Position of(int x, int y) {
+        if ((x | y) >= 0 && x < CACHE_SIZE && y < CACHE_SIZE) {
+            int index = y * CACHE_SIZE + x;
+            Position position = CACHE[index];
+            // Racing threads may each create the position, either one is fine as positions are immutable
+            if (position == null) {
+                position = new Position(x, y);
+                CACHE[index] = position;
+            }
+            return position;
+        }
+        return new Position(x, y);
+    }
+
+    /**
+     * Encodes coordinates as a single long, x in the high 32 bits and y in the low 32 bits.
+     *
+     * @param x - coordinate
+     * @param y - coordinate
+     * @return the packed coordinates.
+     */
+    public static long pack(int x, int y) {
+        return ((long) x << 32) | (y & 0xffffffffL);
+    }
+
+    /**
+     * Gets the x coordinate of packed coordinates.
+     *
+     * @param packed coordinates encoded by pack().
+     * @return the x coordinate.
+     */
+    public static int unpackX(long packed) {
+        return (int) (packed >> 32);
+    }
+
+    /**
+     * Gets the y coordinate of packed coordinates.
+     *
+     * @param packed coordinates encoded by pack().
+     * @return the y coordinate.
+     */
+    public static int unpackY(long packed) {
+        return (int) packed;
+    }
+
+    /**
+     * Adds two packed coordinates together.
+     *
+     * @param packed coordinates encoded by pack().
+     * @param other coordinates encoded by pack() to add.
+     * @return the packed sum of the coordinates.
+     */
+    public static long addPacked(long packed, long other) {
+        return pack(unpackX(packed) + unpackX(other), unpackY(packed) + unpackY(other));
+    }
+
+    /**
+     * Gets the position held by packed coordinates.
+     *
+     * @param packed coordinates encoded by pack().
+     * @return the position at the packed coordinates, shared as by of().
+     */
+    public static Position unpack(long packed) {
+        return of(unpackX(packed), unpackY(packed));
+    }
+
+    /**
+     * Calculates a well distributed hash of coordinates, equal to the hashCode() of the position at them.
+     *
+     * @param x - coordinate
+     * @param y - coordinate
+     * @return hash of the coordinates.
+     */
+    public static int hash(int x, int y) {
+        // Multiplies by the 64 bit golden ratio and folds the high bits in so nearby positions spread out
+        long mixed = pack(x, y) * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32));
+    }
+
+    /**
+     * Encodes this position as a single long, see pack().
+     *
+     * @return the packed coordinates of this position.
+     */
+    public long toPacked() {
+        return pack(x, y);
+    }
+
     /**
      * Gets the X coordinate.
      *
@@ -46,7 +148,7 @@ public class Position {
     public Position add(Position other) {
         int new_x = x + other.getX();
         int new_y = y + other.getY();
-        return new Position(new_x, new_y);
+        return of(new_x, new_y);
     }
 
     /**
@@ -56,7 +158,166 @@ public class Position {
      * @return the euclidean distance.
      */
     public double distance(Position other) {
-        return java.lang.Math.sqrt((x-other.getX())^2 + (y-other.getY())^2);
+        return java.lang.Math.sqrt(distanceSquared(other));
+    }
+
+    /**
+     * Calculates the squared Euclidean distance from this point to the given other point.
+     * Comparing squared distances orders points the same way as comparing distances, without a square root.
+     *
+     * @param other point used to calculate the distance.
+     * @return the squared euclidean distance.
+     */
+    public long distanceSquared(Position other) {
+        return distanceSquared(x, y, other.getX(), other.getY());
+    }
+
+    /**
+     * Calculates the Manhattan distance from this point to the given other point, the number of steps
+     * up, down, left or right between them.
+     *
+     * @param other point used to calculate the distance.
+     * @return the manhattan distance.
+     */
+    public int manhattanDistance(Position other) {
+        return manhattanDistance(x, y, other.getX(), other.getY());
+    }
+
+    /**
+     * Calculates the Chebyshev distance from this point to the given other point, the larger of the
+     * distances along the x and y axis.
+     *
+     * @param other point used to calculate the distance.
+     * @return the chebyshev distance.
+     */
+    public int chebyshevDistance(Position other) {
+        return chebyshevDistance(x, y, other.getX(), other.getY());
+    }
+
+    /**
+     * Calculates the squared Euclidean distance between two points.
+     *
+     * @param x1 x coordinate of the first point.
+     * @param y1 y coordinate of the first point.
+     * @param x2 x coordinate of the second point.
+     * @param y2 y coordinate of the second point.
+     * @return the squared euclidean distance.
+     */
+    public static long distanceSquared(int x1, int y1, int x2, int y2) {
+        long dx = (long) x1 - x2;
+        long dy = (long) y1 - y2;
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * Calculates the Manhattan distance between two points.
+     *
+     * @param x1 x coordinate of the first point.
+     * @param y1 y coordinate of the first point.
+     * @param x2 x coordinate of the second point.
+     * @param y2 y coordinate of the second point.
+     * @return the manhattan distance.
+     */
+    public static int manhattanDistance(int x1, int y1, int x2, int y2) {
+        return Math.abs(x1 - x2) + Math.abs(y1 - y2);
+    }
+
+    /**
+     * Calculates the Chebyshev distance between two points.
+     *
+     * @param x1 x coordinate of the first point.
+     * @param y1 y coordinate of the first point.
+     * @param x2 x coordinate of the second point.
+     * @param y2 y coordinate of the second point.
+     * @return the chebyshev distance.
+     */
+    public static int chebyshevDistance(int x1, int y1, int x2, int y2) {
+        return Math.max(Math.abs(x1 - x2), Math.abs(y1 - y2));
+    }
+
+    /**
+     * Finds the candidate closest to a point by Euclidean distance. Candidates are given as parallel
+     * coordinate arrays, candidate i being at ( xs[i], ys[i] ).
+     *
+     * @param x x coordinate of the point.
+     * @param y y coordinate of the point.
+     * @param xs x coordinates of the candidates.
+     * @param ys y coordinates of the candidates.
+     * @param count the number of candidates to consider, starting from index 0.
+     * @return the index of the closest candidate, the lowest index on a tie, or -1 if count is 0.
+     * @throws IndexOutOfBoundsException if either array holds fewer than count coordinates.
+     */
+    public static int nearestSquared(int x, int y, int[] xs, int[] ys, int count)
+    throws IndexOutOfBoundsException {
+        checkCandidates(xs, ys, count);
+        int nearest = -1;
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < count; i++) {
+            long distance = distanceSquared(x, y, xs[i], ys[i]);
+            if (distance < best) {
+                best = distance;
+                nearest = i;
+            }
+        }
+        return nearest;
+    }
+
+    /**
+     * Finds the candidate closest to a point by Manhattan distance, see nearestSquared().
+     *
+     * @param x x coordinate of the point.
+     * @param y y coordinate of the point.
+     * @param xs x coordinates of the candidates.
+     * @param ys y coordinates of the candidates.
+     * @param count the number of candidates to consider, starting from index 0.
+     * @return the index of the closest candidate, the lowest index on a tie, or -1 if count is 0.
+     * @throws IndexOutOfBoundsException if either array holds fewer than count coordinates.
+     */
+    public static int nearestManhattan(int x, int y, int[] xs, int[] ys, int count)
+    throws IndexOutOfBoundsException {
+        checkCandidates(xs, ys, count);
+        int nearest = -1;
+        int best = Integer.MAX_VALUE;
+        for (int i = 0; i < count; i++) {
+            int distance = manhattanDistance(x, y, xs[i], ys[i]);
+            if (distance < best) {
+                best = distance;
+                nearest = i;
+            }
+        }
+        return nearest;
+    }
+
+    /**
+     * Finds the candidate closest to a point by Chebyshev distance, see nearestSquared().
+     *
+     * @param x x coordinate of the point.
+     * @param y y coordinate of the point.
+     * @param xs x coordinates of the candidates.
+     * @param ys y coordinates of the candidates.
+     * @param count the number of candidates to consider, starting from index 0.
+     * @return the index of the closest candidate, the lowest index on a tie, or -1 if count is 0.
+     * @throws IndexOutOfBoundsException if either array holds fewer than count coordinates.
+     */
+    public static int nearestChebyshev(int x, int y, int[] xs, int[] ys, int count)
+    throws IndexOutOfBoundsException {
+        checkCandidates(xs, ys, count);
+        int nearest = -1;
+        int best = Integer.MAX_VALUE;
+        for (int i = 0; i < count; i++) {
+            int distance = chebyshevDistance(x, y, xs[i], ys[i]);
+            if (distance < best) {
+                best = distance;
+                nearest = i;
+            }
+        }
+        return nearest;
+    }
+
+    private static void checkCandidates(int[] xs, int[] ys, int count) {
+        if (count < 0 || count > xs.length || count > ys.length) {
+            throw new IndexOutOfBoundsException("count " + count + " does not fit the candidate arrays");
+        }
     }
 
     /**
@@ -66,7 +327,7 @@ public class Position {
      * @return a new position with the x coord scaled by factor and y coord scaled by factor.
      */
     public Position multiply(int factor) {
-        return new Position(this.getX()*factor, this.getY()*factor);
+        return of(this.getX()*factor, this.getY()*factor);
     }
 
     /**
@@ -98,6 +359,6 @@ public class Position {
      * @return hash of this position.
      */
     public int hashCode() {
-        return x + y;
+        return hash(x, y);
     }
 }
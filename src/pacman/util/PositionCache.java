@@ -0,0 +1,70 @@
+package pacman.util;
+
+/**
+ * PositionCache - shares one Position instance per tile of a board of a given width and height.
+ * Positions are created the first time they are requested and reused afterwards.
+ */
+public class PositionCache {
+
+    private final int width;
+    private final int height;
+    private final Position[] positions;
+
+    /**
+     * Creates a cache for the tiles of a board.
+     *
+     * @param width the width of the board.
+     * @param height the height of the board.
+     * @throws IllegalArgumentException if either dimension is not positive or the board is too large.
+     */
+    public PositionCache(int width, int height) throws IllegalArgumentException {
+        if (width < 1 || height < 1 || (long) width * height > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("invalid board dimensions: " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+        positions = new Position[width * height];
+    }
+
+    /**
+     * Gets the shared position at the given coordinates.
+     *
+     * @param x - coordinate
+     * @param y - coordinate
+     * @return the position at ( x, y ).
+     * @throws IndexOutOfBoundsException if the coordinates are off the board.
+     */
+    public Position get(int x, int y) throws IndexOutOfBoundsException {
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            throw new IndexOutOfBoundsException("position (" + x + ", " + y + ") is outside the board");
+        }
+        return get(y * width + x);
+    }
+
+    /**
+     * Gets the shared position of a tile by its cell index ( y * width + x ).
+     *
+     * @param cell the cell index of the tile.
+     * @return the position of the tile.
+     * @throws IndexOutOfBoundsException if the cell is off the board.
+     */
+    public Position get(int cell) throws IndexOutOfBoundsException {
+        Position position = positions[cell];
+        if (position == null) {
+            position = Position.of(cell % width, cell / width);
+            positions[cell] = position;
+        }
+        return position;
+    }
+
+    /**
+     * Gets the shared position at packed coordinates.
+     *
+     * @param packed coordinates encoded by Position.pack().
+     * @return the position at the packed coordinates.
+     * @throws IndexOutOfBoundsException if the coordinates are off the board.
+     */
+    public Position get(long packed) throws IndexOutOfBoundsException {
+        return get(Position.unpackX(packed), Position.unpackY(packed));
+    }
+}
@@ -0,0 +1,244 @@
+package pacman.util;
+
+import java.util.Arrays;
+
+/**
+ * PositionIntMap - a map from board coordinates to int values without boxing.
+ * Keys are held as packed coordinates ( see Position.pack() ) in an open addressing table with linear probing,
+ * so adding an entry does not allocate unless the table has to grow.
+ */
+public class PositionIntMap {
+
+    /**
+     * Receives the entries of a map.
+     */
+    public interface EntryVisitor {
+
+        /**
+         * Visits one entry of the map.
+         *
+         * @param x the x coordinate of the key.
+         * @param y the y coordinate of the key.
+         * @param value the value stored for the key.
+         */
+        void visit(int x, int y, int value);
+    }
+
+    private final int missingValue;
+    private long[] keys;
+    private int[] values;
+    private boolean[] used;
+    private int mask;
+    private int size;
+
+    /**
+     * Creates an empty map.
+     *
+     * @param expectedSize the number of entries the map should hold before it has to grow.
+     * @param missingValue the value returned by get() for keys that are not in the map.
+     * @throws IllegalArgumentException if expectedSize is negative.
+     */
+    public PositionIntMap(int expectedSize, int missingValue) throws IllegalArgumentException {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("expectedSize must not be negative: " + expectedSize);
+        }
+        this.missingValue = missingValue;
+        allocate(tableSize(expectedSize));
+    }
+
+    /* Gets the smallest power of two table keeping the load factor at or below one half */
+    static int tableSize(int expectedSize) {
+        long needed = Math.max(4L, 2L * expectedSize);
+        if (needed > 1 << 30) {
+            throw new IllegalArgumentException("expectedSize is too large: " + expectedSize);
+        }
+        return Integer.highestOneBit((int) needed - 1) << 1;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        used = new boolean[capacity];
+        mask = capacity - 1;
+    }
+
+    /* Finds the slot holding key, or the empty slot where it belongs */
+    private int slot(int x, int y) {
+        long key = Position.pack(x, y);
+        int slot = Position.hash(x, y) & mask;
+        while (used[slot] && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Gets the number of entries in the map.
+     *
+     * @return the number of entries.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the map holds a value for the coordinates.
+     *
+     * @param x - coordinate
+     * @param y - coordinate
+     * @return true if the map holds a value for ( x, y ), false otherwise.
+     */
+    public boolean containsKey(int x, int y) {
+        return used[slot(x, y)];
+    }
+
+    /**
+     * Gets the value stored for the coordinates.
+     *
+     * @param x - coordinate
+     * @param y - coordinate
+     * @return the value stored for ( x, y ), or the missing value if there is none.
+     */
+    public int get(int x, int y) {
+        int slot = slot(x, y);
+        return used[slot] ? values[slot] : missingValue;
+    }
+
+    /**
+     * Gets the value stored for a position.
+     *
+     * @param position the key.
+     * @return the value stored for position, or the missing value if there is none.
+     * @throws NullPointerException if position is null.
+     */
+    public int get(Position position) throws NullPointerException {
+        return get(position.getX(), position.getY());
+    }
+
+    /**
+     * Stores a value for the coordinates, replacing any value already stored.
+     *
+     * @param x - coordinate
+     * @param y - coordinate
+     * @param value the value to store.
+     * @return the value previously stored, or the missing value if there was none.
+     */
+    public int put(int x, int y, int value) {
+        int slot = slot(x, y);
+        if (used[slot]) {
+            int previous = values[slot];
+            values[slot] = value;
+            return previous;
+        }
+        insert(slot, x, y, value);
+        return missingValue;
+    }
+
+    /**
+     * Stores a value for a position, replacing any value already stored.
+     *
+     * @param position the key.
+     * @param value the value to store.
+     * @return the value previously stored, or the missing value if there was none.
+     * @throws NullPointerException if position is null.
+     */
+    public int put(Position position, int value) throws NullPointerException {
+        return put(position.getX(), position.getY(), value);
+    }
+
+    /**
+     * Adds to the value stored for the coordinates, a key that is not in the map starts at 0.
+     *
+     * @param x - coordinate
+     * @param y - coordinate
+     * @param delta the amount to add.
+     * @return the new value.
+     */
+    public int add(int x, int y, int delta) {
+        int slot = slot(x, y);
+        if (used[slot]) {
+            values[slot] += delta;
+            return values[slot];
+        }
+        insert(slot, x, y, delta);
+        return delta;
+    }
+
+    private void insert(int slot, int x, int y, int value) {
+        keys[slot] = Position.pack(x, y);
+        values[slot] = value;
+        used[slot] = true;
+        // Keeps the load factor at or below one half
+        if (++size * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+    }
+
+    /**
+     * Removes the value stored for the coordinates.
+     *
+     * @param x - coordinate
+     * @param y - coordinate
+     * @return the value that was stored, or the missing value if there was none.
+     */
+    public int remove(int x, int y) {
+        int slot = slot(x, y);
+        if (!used[slot]) {
+            return missingValue;
+        }
+        int removed = values[slot];
+        // Shifts later entries of the probe run back so lookups never stop at the emptied slot
+        int empty = slot;
+        int next = (slot + 1) & mask;
+        while (used[next]) {
+            long key = keys[next];
+            int home = Position.hash(Position.unpackX(key), Position.unpackY(key)) & mask;
+            if (((next - home) & mask) >= ((next - empty) & mask)) {
+                keys[empty] = key;
+                values[empty] = values[next];
+                empty = next;
+            }
+            next = (next + 1) & mask;
+        }
+        used[empty] = false;
+        size--;
+        return removed;
+    }
+
+    /**
+     * Removes every entry, keeping the table.
+     */
+    public void clear() {
+        Arrays.fill(used, false);
+        size = 0;
+    }
+
+    /**
+     * Visits every entry of the map in no particular order. The map must not be changed while visiting.
+     *
+     * @param visitor the visitor to pass each entry to.
+     */
+    public void forEach(EntryVisitor visitor) {
+        for (int i = 0; i < keys.length; i++) {
+            if (used[i]) {
+                visitor.visit(Position.unpackX(keys[i]), Position.unpackY(keys[i]), values[i]);
+            }
+        }
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        boolean[] oldUsed = used;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                long key = oldKeys[i];
+                int slot = slot(Position.unpackX(key), Position.unpackY(key));
+                keys[slot] = key;
+                values[slot] = oldValues[i];
+                used[slot] = true;
+            }
+        }
+    }
+}
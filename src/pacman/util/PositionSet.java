@@ -0,0 +1,186 @@
+package pacman.util;
+
+import java.util.Arrays;
+
+/**
+ * PositionSet - a set of board coordinates without boxing.
+ * Coordinates are held packed ( see Position.pack() ) in an open addressing table with linear probing,
+ * so adding a position does not allocate unless the table has to grow.
+ */
+public class PositionSet {
+
+    /**
+     * Receives the members of a set.
+     */
+    public interface MemberVisitor {
+
+        /**
+         * Visits one member of the set.
+         *
+         * @param x the x coordinate of the member.
+         * @param y the y coordinate of the member.
+         */
+        void visit(int x, int y);
+    }
+
+    private long[] keys;
+    private boolean[] used;
+    private int mask;
+    private int size;
+
+    /**
+     * Creates an empty set.
+     *
+     * @param expectedSize the number of members the set should hold before it has to grow.
+     * @throws IllegalArgumentException if expectedSize is negative.
+     */
+    public PositionSet(int expectedSize) throws IllegalArgumentException {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("expectedSize must not be negative: " + expectedSize);
+        }
+        allocate(PositionIntMap.tableSize(expectedSize));
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        used = new boolean[capacity];
+        mask = capacity - 1;
+    }
+
+    /* Finds the slot holding key, or the empty slot where it belongs */
+    private int slot(int x, int y) {
+        long key = Position.pack(x, y);
+        int slot = Position.hash(x, y) & mask;
+        while (used[slot] && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Gets the number of members of the set.
+     *
+     * @return the number of members.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the coordinates are in the set.
+     *
+     * @param x - coordinate
+     * @param y - coordinate
+     * @return true if ( x, y ) is in the set, false otherwise.
+     */
+    public boolean contains(int x, int y) {
+        return used[slot(x, y)];
+    }
+
+    /**
+     * Checks if a position is in the set.
+     *
+     * @param position the position to look for.
+     * @return true if position is in the set, false otherwise.
+     * @throws NullPointerException if position is null.
+     */
+    public boolean contains(Position position) throws NullPointerException {
+        return contains(position.getX(), position.getY());
+    }
+
+    /**
+     * Adds the coordinates to the set.
+     *
+     * @param x - coordinate
+     * @param y - coordinate
+     * @return true if ( x, y ) was added, false if it was already in the set.
+     */
+    public boolean add(int x, int y) {
+        int slot = slot(x, y);
+        if (used[slot]) {
+            return false;
+        }
+        keys[slot] = Position.pack(x, y);
+        used[slot] = true;
+        // Keeps the load factor at or below one half
+        if (++size * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+        return true;
+    }
+
+    /**
+     * Adds a position to the set.
+     *
+     * @param position the position to add.
+     * @return true if position was added, false if it was already in the set.
+     * @throws NullPointerException if position is null.
+     */
+    public boolean add(Position position) throws NullPointerException {
+        return add(position.getX(), position.getY());
+    }
+
+    /**
+     * Removes the coordinates from the set.
+     *
+     * @param x - coordinate
+     * @param y - coordinate
+     * @return true if ( x, y ) was removed, false if it was not in the set.
+     */
+    public boolean remove(int x, int y) {
+        int slot = slot(x, y);
+        if (!used[slot]) {
+            return false;
+        }
+        // Shifts later members of the probe run back so lookups never stop at the emptied slot
+        int empty = slot;
+        int next = (slot + 1) & mask;
+        while (used[next]) {
+            long key = keys[next];
+            int home = Position.hash(Position.unpackX(key), Position.unpackY(key)) & mask;
+            if (((next - home) & mask) >= ((next - empty) & mask)) {
+                keys[empty] = key;
+                empty = next;
+            }
+            next = (next + 1) & mask;
+        }
+        used[empty] = false;
+        size--;
+        return true;
+    }
+
+    /**
+     * Removes every member, keeping the table.
+     */
+    public void clear() {
+        Arrays.fill(used, false);
+        size = 0;
+    }
+
+    /**
+     * Visits every member of the set in no particular order. The set must not be changed while visiting.
+     *
+     * @param visitor the visitor to pass each member to.
+     */
+    public void forEach(MemberVisitor visitor) {
+        for (int i = 0; i < keys.length; i++) {
+            if (used[i]) {
+                visitor.visit(Position.unpackX(keys[i]), Position.unpackY(keys[i]));
+            }
+        }
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        boolean[] oldUsed = used;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                long key = oldKeys[i];
+                int slot = slot(Position.unpackX(key), Position.unpackY(key));
+                keys[slot] = key;
+                used[slot] = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package pacman.board;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import pacman.util.Position;
+
+import static org.junit.Assert.*;
+import static pacman.board.BoardItem.*;
+
+public class BitboardTest {
+
+    PacmanBoard board;
+
+    @Before
+    public void setUp() throws Exception {
+        // 70 wide so rows straddle word boundaries
+        board = new PacmanBoard(70, 5);
+        board.reset();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        board = null;
+    }
+
+    @Test
+    public void layers() {
+        board.setEntry(new Position(10, 2), BIG_DOT);
+        BoardLayers layers = BoardLayers.of(board);
+        assertEquals(board.countOf(WALL), layers.get(WALL).cardinality());
+        assertEquals(board.countOf(DOT), layers.get(DOT).cardinality());
+        assertEquals(true, layers.get(BIG_DOT).get(new Position(10, 2)));
+        assertEquals(70 * 5 - board.countOf(WALL), layers.pathable().cardinality());
+    }
+
+    @Test
+    public void setOperations() {
+        Bitboard a = new Bitboard(70, 5);
+        Bitboard b = new Bitboard(70, 5);
+        a.set(1);
+        a.set(64);
+        b.set(64);
+        b.set(200);
+        assertEquals(1, a.copy().and(b).cardinality());
+        assertEquals(3, a.copy().or(b).cardinality());
+        Bitboard difference = a.copy().andNot(b);
+        assertEquals(1, difference.cardinality());
+        assertEquals(true, difference.get(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setOperationsDifferentBoards() {
+        new Bitboard(70, 5).and(new Bitboard(5, 70));
+    }
+
+    @Test
+    public void nextSetBit() {
+        Bitboard a = new Bitboard(70, 5);
+        a.set(3);
+        a.set(130);
+        assertEquals(3, a.nextSetBit(0));
+        assertEquals(130, a.nextSetBit(4));
+        assertEquals(-1, a.nextSetBit(131));
+    }
+
+    @Test
+    public void countInRegion() {
+        Bitboard dots = BoardLayers.of(board).get(DOT);
+        // Every interior tile holds a dot
+        assertEquals(68 * 3, dots.countInRegion(0, 0, 70, 5));
+        assertEquals(60 * 2, dots.countInRegion(5, 1, 60, 2));
+        assertEquals(0, dots.countInRegion(0, 0, 70, 1));
+    }
+
+    @Test
+    public void reachableFrom() {
+        // Splits the board in two with a wall at x = 40
+        for (int y = 1; y < 4; y++) {
+            board.setEntry(new Position(40, y), WALL);
+        }
+        BoardLayers layers = BoardLayers.of(board);
+        Bitboard reachable = layers.pathable().reachableFrom(new Position(1, 1));
+        assertEquals(39 * 3, reachable.cardinality());
+        assertEquals(false, reachable.get(new Position(41, 1)));
+        assertEquals(39 * 3, reachable.and(layers.get(DOT)).cardinality());
+
+        // Starting on a wall reaches nothing
+        assertEquals(0, layers.pathable().reachableFrom(new Position(0, 0)).cardinality());
+    }
+
+    @Test
+    public void reachableFromWindingPath() {
+        // Full rows joined at alternate ends, so the fill turns back across word boundaries
+        Bitboard path = new Bitboard(70, 5);
+        for (int x = 0; x < 70; x++) {
+            path.set(new Position(x, 0));
+            path.set(new Position(x, 2));
+            path.set(new Position(x, 4));
+        }
+        path.set(new Position(69, 1));
+        path.set(new Position(0, 3));
+        assertEquals(path, path.reachableFrom(new Position(69, 4)));
+
+        // Cutting the last row off keeps the fill out of it
+        Bitboard cut = path.copy();
+        cut.clear(3 * 70);
+        Bitboard reachable = cut.reachableFrom(new Position(0, 0));
+        assertEquals(70 * 2 + 1, reachable.cardinality());
+        assertFalse(reachable.get(new Position(64, 4)));
+    }
+}
@@ -0,0 +1,169 @@
+package pacman.board;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import pacman.util.Position;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+import static pacman.board.BoardItem.*;
+
+public class BoardFileTest {
+
+    Path path;
+
+    @Before
+    public void setUp() throws Exception {
+        path = Files.createTempFile("board", ".pacb");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(path);
+        path = null;
+    }
+
+    @Test
+    public void roundTrip() throws IOException {
+        PacmanBoard board = new PacmanBoard(7, 4);
+        board.reset();
+        board.setEntry(new Position(1, 1), PACMAN_SPAWN);
+        board.setEntry(new Position(5, 2), GHOST_SPAWN);
+        board.setEntry(new Position(3, 2), BIG_DOT);
+        BoardFile.write(board, path);
+        assertEquals(BoardFile.HEADER_SIZE + 7 * 4, Files.size(path));
+
+        try (BoardFile file = BoardFile.openReadOnly(path)) {
+            PacmanBoard loaded = file.getBoard();
+            assertEquals(7, loaded.getWidth());
+            assertEquals(4, loaded.getHeight());
+            assertEquals(new Position(1, 1), loaded.getPacmanSpawn());
+            assertEquals(new Position(5, 2), loaded.getGhostSpawn());
+            for (BoardItem item : BoardItem.values()) {
+                assertEquals(board.countOf(item), loaded.countOf(item));
+            }
+            for (int y = 0; y < 4; y++) {
+                for (int x = 0; x < 7; x++) {
+                    Position position = new Position(x, y);
+                    assertEquals(board.getEntry(position), loaded.getEntry(position));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void writeBack() throws IOException {
+        BoardFile.write(new PacmanBoard(5, 5), path);
+        try (BoardFile file = BoardFile.open(path)) {
+            file.getBoard().setEntry(new Position(2, 2), PACMAN_SPAWN);
+            file.getBoard().setEntry(new Position(1, 1), DOT);
+        }
+        try (BoardFile file = BoardFile.open(path)) {
+            PacmanBoard board = file.getBoard();
+            assertEquals(PACMAN_SPAWN, board.getEntry(new Position(2, 2)));
+            assertEquals(new Position(2, 2), board.getPacmanSpawn());
+            assertEquals(false, board.isEmpty());
+
+            // Copies live on the heap and do not write to the file
+            PacmanBoard copy = new PacmanBoard(board);
+            copy.setEntry(new Position(3, 3), WALL);
+            assertEquals(NONE, board.getEntry(new Position(3, 3)));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void openInvalidFile() throws IOException {
+        Files.write(path, new byte[BoardFile.HEADER_SIZE + 4]);
+        BoardFile.open(path);
+    }
+
+    @Test(expected = IOException.class)
+    public void openUnknownTile() throws IOException {
+        BoardFile.write(new PacmanBoard(5, 5), path);
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[BoardFile.HEADER_SIZE + 7] = (byte) BoardItem.values().length;
+        markDirty(bytes);
+        Files.write(path, bytes);
+        BoardFile.openReadOnly(path);
+    }
+
+    @Test(expected = IOException.class)
+    public void openSpawnOutsideBoard() throws IOException {
+        BoardFile.write(new PacmanBoard(5, 5), path);
+        byte[] bytes = Files.readAllBytes(path);
+        // Pacman spawn index 25 on a 5x5 board
+        bytes[19] = 25;
+        Files.write(path, bytes);
+        BoardFile.openReadOnly(path);
+    }
+
+    @Test
+    public void openStaleHeader() throws IOException {
+        PacmanBoard written = new PacmanBoard(5, 5);
+        written.reset();
+        BoardFile.write(written, path);
+        byte[] bytes = Files.readAllBytes(path);
+        // A tile written back without its header, as after a crash
+        bytes[BoardFile.HEADER_SIZE + 12] = (byte) PACMAN_SPAWN.ordinal();
+        markDirty(bytes);
+        Files.write(path, bytes);
+
+        // Case 1 - The spawns and counts come from the tiles
+        try (BoardFile file = BoardFile.openReadOnly(path)) {
+            PacmanBoard board = file.getBoard();
+            assertEquals(new Position(2, 2), board.getPacmanSpawn());
+            assertEquals(1, board.countOf(PACMAN_SPAWN));
+            assertEquals(written.countOf(DOT) - 1, board.countOf(DOT));
+        }
+    }
+
+    @Test
+    public void openCleanHeader() throws IOException {
+        PacmanBoard written = new PacmanBoard(5, 5);
+        written.reset();
+        BoardFile.write(written, path);
+        byte[] bytes = Files.readAllBytes(path);
+        // Changed behind the header's back, which only a scan would notice
+        bytes[BoardFile.HEADER_SIZE + 12] = (byte) PACMAN_SPAWN.ordinal();
+        Files.write(path, bytes);
+
+        // Case 1 - A clean file's spawns and counts come from its header
+        try (BoardFile file = BoardFile.openReadOnly(path)) {
+            PacmanBoard board = file.getBoard();
+            assertNull(board.getPacmanSpawn());
+            assertEquals(0, board.countOf(PACMAN_SPAWN));
+            assertEquals(written.countOf(DOT), board.countOf(DOT));
+        }
+    }
+
+    @Test
+    public void dirtyUntilFlushed() throws IOException {
+        BoardFile.write(new PacmanBoard(5, 5), path);
+        try (BoardFile file = BoardFile.open(path)) {
+            // Case 1 - Opening does not mark the file dirty, the first write does
+            assertFalse(isDirty());
+            file.getBoard().setEntry(new Position(2, 2), PACMAN_SPAWN);
+            assertTrue(isDirty());
+
+            // Case 2 - Flushing marks it clean until the next write
+            file.flush();
+            assertFalse(isDirty());
+            file.getBoard().setEntry(new Position(1, 1), DOT);
+            assertTrue(isDirty());
+        }
+        assertFalse(isDirty());
+    }
+
+    /* Sets the header's state to dirty, as a crash after a write leaves it */
+    private static void markDirty(byte[] bytes) {
+        bytes[27] = 1;
+    }
+
+    private boolean isDirty() throws IOException {
+        return Files.readAllBytes(path)[27] != 0;
+    }
+}
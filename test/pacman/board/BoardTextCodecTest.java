@@ -0,0 +1,62 @@
+package pacman.board;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import pacman.util.Position;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+import static pacman.board.BoardItem.*;
+
+public class BoardTextCodecTest {
+
+    Path path;
+    BoardTextCodec codec;
+
+    @Before
+    public void setUp() throws Exception {
+        path = Files.createTempFile("board", ".txt");
+        codec = new BoardTextCodec();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(path);
+        path = null;
+        codec = null;
+    }
+
+    @Test
+    public void roundTrip() throws IOException {
+        Files.write(path, "XXXXX\r\nX1P$X\r\nXbB0X\r\nXXXXX".getBytes(StandardCharsets.US_ASCII));
+        PacmanBoard board = codec.read(path);
+        assertEquals(5, board.getWidth());
+        assertEquals(4, board.getHeight());
+        assertEquals(DOT, board.getEntry(new Position(1, 1)));
+        assertEquals(new Position(2, 1), board.getPacmanSpawn());
+        assertEquals(new Position(3, 1), board.getGhostSpawn());
+        assertEquals(BIG_DOT_SPAWN, board.getEntry(new Position(1, 2)));
+        assertEquals(14, board.countOf(WALL));
+
+        codec.write(board, path);
+        assertEquals("XXXXX\nX1P$X\nXbB0X\nXXXXX\n", new String(Files.readAllBytes(path), StandardCharsets.US_ASCII));
+        assertEquals(BIG_DOT, codec.read(path).getEntry(new Position(2, 2)));
+    }
+
+    @Test(expected = IOException.class)
+    public void invalidCharacter() throws IOException {
+        Files.write(path, "XXX\nX?X\nXXX\n".getBytes(StandardCharsets.US_ASCII));
+        codec.read(path);
+    }
+
+    @Test(expected = IOException.class)
+    public void raggedRows() throws IOException {
+        Files.write(path, "XXX\nXX\nXXX\n".getBytes(StandardCharsets.US_ASCII));
+        codec.read(path);
+    }
+}
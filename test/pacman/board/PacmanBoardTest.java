@@ -171,4 +171,176 @@ public class PacmanBoardTest {
     public void setEntryOutOfBoundsIndex() {
         b1.setEntry(new Position(b1.getHeight(), b1.getWidth()), NONE);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void nonSquareBoard() {
+        PacmanBoard b2 = new PacmanBoard(5, 3);
+        assertEquals(WALL, b2.getEntry(new Position(4, 2)));
+        assertEquals(NONE, b2.getEntry(new Position(3, 1)));
+        b2.setEntry(new Position(3, 1), DOT);
+        assertEquals(DOT, b2.getEntry(new Position(3, 1)));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void nonSquareBoardIndex() {
+        new PacmanBoard(5, 3).getEntry(new Position(1, 3));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorInvalidSize() {
+        new PacmanBoard(0, 3);
+    }
+
+    @Test
+    public void tileStoreConstructor() {
+        // Case 1 - Store tiles are used as they are, no walls are added.
+        PacmanBoard b2 = new PacmanBoard(2, 2, new ByteTileStore(4));
+        assertEquals(NONE, b2.getEntry(origin));
+
+        // Case 2 - Writes go through to the store.
+        TileStore store = new ByteTileStore(4);
+        PacmanBoard b3 = new PacmanBoard(2, 2, store);
+        b3.setEntry(new Position(1, 0), BIG_DOT);
+        assertEquals(BIG_DOT.ordinal(), store.get(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tileStoreConstructorWrongSize() {
+        new PacmanBoard(2, 2, new ByteTileStore(5));
+    }
+
+    @Test
+    public void copy() {
+        b1.setEntry(new Position(1, 1), DOT);
+        PacmanBoard copy = new PacmanBoard(b1);
+        copy.setEntry(new Position(1, 1), BIG_DOT);
+        assertEquals(DOT, b1.getEntry(new Position(1, 1)));
+        assertEquals(BIG_DOT, copy.getEntry(new Position(1, 1)));
+    }
+
+    @Test
+    public void spawnReplacement() {
+        Position other = new Position(1, 1);
+
+        // Case 1 - Placing a second pacman spawn clears the first.
+        b1.setEntry(origin, PACMAN_SPAWN);
+        b1.setEntry(other, PACMAN_SPAWN);
+        assertEquals(NONE, b1.getEntry(origin));
+        assertEquals(other, b1.getPacmanSpawn());
+
+        // Case 2 - Overwriting a spawn removes it from the board.
+        b1.setEntry(other, WALL);
+        assertEquals(null, b1.getPacmanSpawn());
+
+        // Case 3 - Ghost and pacman spawns are tracked separately.
+        b1.setEntry(origin, GHOST_SPAWN);
+        b1.setEntry(other, PACMAN_SPAWN);
+        assertEquals(origin, b1.getGhostSpawn());
+        assertEquals(other, b1.getPacmanSpawn());
+    }
+
+    @Test
+    public void spawnFromTileStore() {
+        TileStore store = new ByteTileStore(4);
+        store.set(3, (byte) GHOST_SPAWN.ordinal());
+        PacmanBoard b2 = new PacmanBoard(2, 2, store);
+        assertEquals(new Position(1, 1), b2.getGhostSpawn());
+        assertEquals(null, b2.getPacmanSpawn());
+    }
+
+    @Test
+    public void countOf() {
+        // Case 1 - Default 3x3 board, one NONE surrounded by walls.
+        assertEquals(8, b1.countOf(WALL));
+        assertEquals(1, b1.countOf(NONE));
+        assertEquals(0, b1.countOf(DOT));
+
+        // Case 2 - Counts follow setEntry, eatDot and reset.
+        Position centre = new Position(1, 1);
+        b1.setEntry(centre, BIG_DOT);
+        assertEquals(1, b1.countOf(BIG_DOT));
+        assertEquals(0, b1.countOf(NONE));
+        b1.eatDot(centre);
+        assertEquals(0, b1.countOf(BIG_DOT));
+        assertEquals(1, b1.countOf(BIG_DOT_SPAWN));
+        assertEquals(true, b1.isEmpty());
+        b1.reset();
+        assertEquals(1, b1.countOf(BIG_DOT));
+        assertEquals(false, b1.isEmpty());
+
+        // Case 3 - Replaced spawns are counted as NONE.
+        b1.setEntry(origin, PACMAN_SPAWN);
+        b1.setEntry(centre, PACMAN_SPAWN);
+        assertEquals(1, b1.countOf(PACMAN_SPAWN));
+        assertEquals(7, b1.countOf(WALL));
+        assertEquals(1, b1.countOf(NONE));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void countOfNull() {
+        b1.countOf(null);
+    }
+
+    @Test
+    public void resetAfterEating() {
+        PacmanBoard b2 = new PacmanBoard(6, 4);
+        b2.setEntry(new Position(2, 2), BIG_DOT);
+        b2.reset();
+        assertEquals(7, b2.countOf(DOT));
+
+        // Case 1 - Only eaten dots are restored.
+        b2.eatDot(new Position(1, 1));
+        b2.eatDot(new Position(2, 2));
+        assertEquals(6, b2.countOf(DOT));
+        assertEquals(BIG_DOT_SPAWN, b2.getEntry(new Position(2, 2)));
+        b2.reset();
+        assertEquals(DOT, b2.getEntry(new Position(1, 1)));
+        assertEquals(BIG_DOT, b2.getEntry(new Position(2, 2)));
+        assertEquals(7, b2.countOf(DOT));
+
+        // Case 2 - Tiles cleared with setEntry and replaced spawns are restored too.
+        b2.setEntry(new Position(3, 1), PACMAN_SPAWN);
+        b2.setEntry(new Position(4, 1), PACMAN_SPAWN);
+        b2.setEntry(new Position(4, 2), NONE);
+        b2.reset();
+        assertEquals(DOT, b2.getEntry(new Position(3, 1)));
+        assertEquals(PACMAN_SPAWN, b2.getEntry(new Position(4, 1)));
+        assertEquals(DOT, b2.getEntry(new Position(4, 2)));
+
+        // Case 3 - Walls are left alone.
+        assertEquals(WALL, b2.getEntry(origin));
+        assertEquals(16, b2.countOf(WALL));
+    }
+
+    @Test
+    public void copyOnWrite() {
+        PacmanBoard root = new PacmanBoard(100, 100);
+        root.reset();
+        root.setEntry(new Position(50, 50), PACMAN_SPAWN);
+        root.useCopyOnWrite();
+        PacmanBoard fork1 = new PacmanBoard(root);
+        PacmanBoard fork2 = new PacmanBoard(fork1);
+
+        // Case 1 - Writes are only seen by the board written to.
+        fork1.eatDot(new Position(1, 1));
+        fork2.setEntry(new Position(98, 98), WALL);
+        root.setEntry(new Position(2, 1), BIG_DOT);
+        assertEquals(NONE, fork1.getEntry(new Position(1, 1)));
+        assertEquals(DOT, fork2.getEntry(new Position(1, 1)));
+        assertEquals(DOT, root.getEntry(new Position(1, 1)));
+        assertEquals(WALL, fork2.getEntry(new Position(98, 98)));
+        assertEquals(DOT, fork1.getEntry(new Position(98, 98)));
+        assertEquals(DOT, fork1.getEntry(new Position(2, 1)));
+
+        // Case 2 - Indexes and counts are independent too.
+        fork1.setEntry(new Position(3, 3), PACMAN_SPAWN);
+        assertEquals(new Position(3, 3), fork1.getPacmanSpawn());
+        assertEquals(new Position(50, 50), fork2.getPacmanSpawn());
+        assertEquals(NONE, fork1.getEntry(new Position(50, 50)));
+        assertEquals(1, root.countOf(BIG_DOT));
+        assertEquals(0, fork2.countOf(BIG_DOT));
+        fork1.reset();
+        assertEquals(DOT, fork1.getEntry(new Position(1, 1)));
+        assertEquals(DOT, fork1.getEntry(new Position(50, 50)));
+    }
+}
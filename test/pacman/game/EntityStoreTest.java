@@ -0,0 +1,136 @@
+package pacman.game;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import pacman.ghost.Blinky;
+import pacman.ghost.Ghost;
+import pacman.ghost.GhostType;
+import pacman.ghost.Phase;
+import pacman.hunter.Hungry;
+import pacman.hunter.Hunter;
+import pacman.hunter.HunterType;
+import pacman.hunter.Phil;
+import pacman.util.Direction;
+import pacman.util.Position;
+
+import static org.junit.Assert.*;
+
+public class EntityStoreTest {
+
+    EntityStore store;
+
+    @Before
+    public void setUp() throws Exception {
+        store = new EntityStore(0);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        store = null;
+    }
+
+    @Test
+    public void ghostView() {
+        int slot = store.addGhost(GhostType.BLINKY);
+        Ghost ghost = store.ghost(slot);
+        Ghost blinky = new Blinky();
+
+        // Case 1 - A new slot matches a new ghost.
+        assertEquals(blinky.getColour(), ghost.getColour());
+        assertEquals(blinky.getPhase(), ghost.getPhase());
+        assertEquals(blinky.phaseInfo(), ghost.phaseInfo());
+        assertEquals(blinky.getPosition(), ghost.getPosition());
+
+        // Case 2 - Writes through the view land in the store.
+        ghost.setPosition(new Position(4, 5));
+        ghost.setDirection(Direction.LEFT);
+        ghost.setPhase(Phase.FRIGHTENED, -3);
+        assertEquals(4, store.getX(slot));
+        assertEquals(5, store.getY(slot));
+        assertEquals(Direction.LEFT, store.getDirection(slot));
+        assertEquals(Phase.FRIGHTENED, store.getPhase(slot));
+        assertEquals(0, store.getDuration(slot));
+        store.kill(slot);
+        assertEquals(true, ghost.isDead());
+        ghost.reset();
+        assertEquals(false, ghost.isDead());
+        assertEquals(new Position(0, 0), ghost.getPosition());
+        assertSame(ghost, store.ghost(slot));
+    }
+
+    @Test
+    public void hunterView() {
+        int hungrySlot = store.addHunter(HunterType.HUNGRY);
+        int philSlot = store.addHunter(HunterType.PHIL);
+        int ghostSlot = store.addGhost(GhostType.INKY);
+        Hunter hungry = store.hunter(hungrySlot);
+        Hunter phil = store.hunter(philSlot);
+        Ghost ghost = store.ghost(ghostSlot);
+
+        // Case 1 - Specials follow the hunter type.
+        hungry.activateSpecial(2);
+        phil.activateSpecial(2);
+        assertEquals(true, hungry.isSpecialActive());
+        assertEquals(false, phil.isSpecialActive());
+        hungry.tick();
+        assertEquals(1, store.getDuration(hungrySlot));
+
+        // Case 2 - Hungry eats a ghost while its special is active.
+        hungry.hit(ghost);
+        assertEquals(true, ghost.isDead());
+
+        // Case 3 - A ghost that is not frightened kills Phil.
+        ghost.reset();
+        phil.hit(ghost);
+        assertEquals(true, phil.isDead());
+        assertEquals(false, store.isAlive(philSlot));
+    }
+
+    @Test
+    public void copyHunterView() {
+        int slot = store.addHunter(HunterType.SPEEDY);
+        Hunter view = store.hunter(slot);
+        view.setPosition(new Position(3, 2));
+        view.activateSpecial(4);
+
+        // Case 1 - Copies take the view's state
+        Hunter copy = new Hungry(view);
+        assertEquals(HunterType.SPEEDY, view.getType());
+        assertEquals(HunterType.HUNGRY, copy.getType());
+        assertEquals(new Position(3, 2), copy.getPosition());
+        assertEquals(4, copy.getSpecialDurationRemaining());
+        assertEquals(true, copy.isSpecialActive());
+
+        // Case 2 - A used special stays used in the copy
+        copy.tick();
+        copy.activateSpecial(9);
+        assertEquals(3, copy.getSpecialDurationRemaining());
+
+        // Case 3 - An unused special can still be activated in the copy
+        Hunter phil = new Phil(store.hunter(store.addHunter(HunterType.PHIL)));
+        phil.activateSpecial(3);
+        assertEquals(3, phil.getSpecialDurationRemaining());
+        assertEquals(false, phil.isSpecialActive());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void wrongView() {
+        store.ghost(store.addHunter(HunterType.SPEEDY));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void unusedSlot() {
+        store.getX(0);
+    }
+
+    @Test
+    public void grows() {
+        for (int i = 0; i < 1000; i++) {
+            store.setPosition(store.addGhost(GhostType.values()[i % 4]), i, -i);
+        }
+        assertEquals(1000, store.size());
+        assertEquals(999, store.getX(999));
+        assertEquals(GhostType.PINKY, store.getGhostType(999));
+    }
+}
@@ -0,0 +1,144 @@
+package pacman.game;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import pacman.board.PacmanBoard;
+import pacman.ghost.Blinky;
+import pacman.ghost.Ghost;
+import pacman.ghost.Inky;
+import pacman.ghost.Phase;
+import pacman.hunter.Hunter;
+import pacman.hunter.HunterType;
+import pacman.hunter.Phil;
+import pacman.score.ScoreBoard;
+import pacman.util.Direction;
+import pacman.util.Position;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static pacman.board.BoardItem.*;
+
+public class GameEngineTest {
+
+    PacmanBoard board;
+    ScoreBoard scores;
+
+    @Before
+    public void setUp() throws Exception {
+        board = new PacmanBoard(10, 10);
+        board.reset();
+        board.setEntry(new Position(1, 1), PACMAN_SPAWN);
+        board.setEntry(new Position(8, 8), GHOST_SPAWN);
+        scores = new ScoreBoard();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        board = null;
+        scores = null;
+    }
+
+    @Test
+    public void spawns() {
+        Hunter hunter = new Phil();
+        Ghost ghost = new Blinky();
+        new GameEngine(board, scores, hunter, List.of(ghost), 1);
+        assertEquals(new Position(1, 1), hunter.getPosition());
+        assertEquals(new Position(8, 8), ghost.getPosition());
+    }
+
+    @Test
+    public void eatingScores() {
+        Hunter hunter = new Phil();
+        hunter.setDirection(Direction.RIGHT);
+        board.setEntry(new Position(3, 1), BIG_DOT);
+        Ghost ghost = new Blinky();
+        GameEngine engine = new GameEngine(board, scores, hunter, List.of(ghost), 1);
+
+        engine.tick();
+        assertEquals(new Position(2, 1), hunter.getPosition());
+        assertEquals(10, scores.getScore());
+        engine.tick();
+        assertEquals(25, scores.getScore());
+        assertEquals(BIG_DOT_SPAWN, board.getEntry(new Position(3, 1)));
+        assertEquals(Phase.FRIGHTENED, ghost.getPhase());
+        assertEquals(2, engine.getTick());
+    }
+
+    @Test
+    public void wallsStopTheHunter() {
+        Hunter hunter = new Phil();
+        hunter.setDirection(Direction.UP);
+        GameEngine engine = new GameEngine(board, scores, hunter, List.<Ghost>of(), 1);
+        engine.tick();
+        assertEquals(new Position(1, 1), hunter.getPosition());
+    }
+
+    @Test
+    public void speedyStepsTwice() {
+        // Case 1 - A store-backed Speedy moves two tiles while its special is active
+        EntityStore store = new EntityStore(0);
+        Hunter speedy = store.hunter(store.addHunter(HunterType.SPEEDY));
+        speedy.setDirection(Direction.RIGHT);
+        speedy.activateSpecial(5);
+        GameEngine engine = new GameEngine(board, scores, speedy, List.<Ghost>of(), 1);
+        engine.tick();
+        assertEquals(new Position(3, 1), speedy.getPosition());
+
+        // Case 2 - Other hunter types only move one tile
+        Hunter hungry = store.hunter(store.addHunter(HunterType.HUNGRY));
+        hungry.setDirection(Direction.RIGHT);
+        hungry.activateSpecial(5);
+        engine = new GameEngine(new PacmanBoard(board), new ScoreBoard(), hungry, List.<Ghost>of(), 1);
+        engine.tick();
+        assertEquals(new Position(2, 1), hungry.getPosition());
+    }
+
+    @Test
+    public void phasesCountDown() {
+        Ghost ghost = new Blinky();
+        GameEngine engine = new GameEngine(board, scores, new Phil(), List.of(ghost), 1);
+        engine.run(Phase.SCATTER.getDuration() - 1);
+        assertEquals(Phase.SCATTER, ghost.getPhase());
+        assertEquals(1, ghost.getPhaseDuration());
+        engine.tick();
+        assertEquals(Phase.CHASE, ghost.getPhase());
+        assertEquals(Phase.CHASE.getDuration(), ghost.getPhaseDuration());
+    }
+
+    @Test
+    public void ghostsKillTheHunter() {
+        Hunter hunter = new Phil();
+        Ghost ghost = new Blinky();
+        board.setEntry(new Position(2, 1), GHOST_SPAWN);
+        GameEngine engine = new GameEngine(board, scores, hunter, List.of(ghost), 1);
+        hunter.setDirection(Direction.RIGHT);
+        engine.tick();
+        assertEquals(true, hunter.isDead());
+        assertEquals(true, engine.isOver());
+        assertEquals(false, engine.isWon());
+    }
+
+    @Test
+    public void deterministic() {
+        PacmanBoard copy = new PacmanBoard(board);
+        Hunter hunter1 = new Phil();
+        Hunter hunter2 = new Phil();
+        Ghost ghost1 = new Inky();
+        Ghost ghost2 = new Inky();
+        GameEngine engine1 = new GameEngine(board, scores, hunter1, List.of(ghost1), 42);
+        GameEngine engine2 = new GameEngine(copy, new ScoreBoard(), hunter2, List.of(ghost2), 42);
+        for (int i = 0; i < 200; i++) {
+            Direction direction = Direction.values()[i / 7 % 4];
+            hunter1.setDirection(direction);
+            hunter2.setDirection(direction);
+            engine1.tick();
+            engine2.tick();
+            assertEquals(ghost1.getPosition(), ghost2.getPosition());
+            assertEquals(hunter1.getPosition(), hunter2.getPosition());
+        }
+        assertEquals(engine1.getTick(), engine2.getTick());
+    }
+}
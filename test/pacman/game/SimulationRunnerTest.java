@@ -0,0 +1,95 @@
+package pacman.game;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import pacman.board.PacmanBoard;
+import pacman.ghost.Blinky;
+import pacman.ghost.Ghost;
+import pacman.ghost.Inky;
+import pacman.hunter.Hungry;
+import pacman.hunter.Phil;
+import pacman.score.ScoreBoard;
+import pacman.util.Direction;
+import pacman.util.Position;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static pacman.board.BoardItem.*;
+
+public class SimulationRunnerTest {
+
+    PacmanBoard template;
+    SimulationRunner.GameFactory factory;
+
+    @Before
+    public void setUp() throws Exception {
+        template = new PacmanBoard(12, 12);
+        template.reset();
+        template.setEntry(new Position(1, 1), PACMAN_SPAWN);
+        template.setEntry(new Position(10, 10), GHOST_SPAWN);
+        template.setEntry(new Position(5, 1), BIG_DOT);
+        factory = new SimulationRunner.GameFactory() {
+            @Override
+            public GameEngine create(int game) {
+                List<Ghost> ghosts = List.of(new Blinky(), new Inky());
+                return new GameEngine(new PacmanBoard(template), new ScoreBoard(),
+                        game % 2 == 0 ? new Phil() : new Hungry(), ghosts, game);
+            }
+
+            @Override
+            public void steer(int game, GameEngine engine) {
+                long tick = engine.getTick() + game;
+                engine.getHunter().setDirection(Direction.values()[(int) (tick / 5 % 4)]);
+            }
+        };
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        template = null;
+        factory = null;
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidParallelism() {
+        new SimulationRunner(0);
+    }
+
+    @Test
+    public void matchesSequentialRun() {
+        SimulationResults sequential = new SimulationRunner(1).run(40, 150, factory);
+        SimulationResults parallel = new SimulationRunner(4).run(40, 150, factory);
+
+        // Case 1 - Every game plays out the same whatever thread it runs on.
+        assertEquals(40, parallel.getGameCount());
+        for (int game = 0; game < 40; game++) {
+            assertEquals(sequential.getScore(game), parallel.getScore(game));
+            assertEquals(sequential.getTicks(game), parallel.getTicks(game));
+            assertEquals(sequential.isWon(game), parallel.isWon(game));
+            assertTrue(parallel.getTicks(game) > 0 && parallel.getTicks(game) <= 150);
+        }
+        assertEquals(sequential.getTotalTicks(), parallel.getTotalTicks());
+        assertEquals(sequential.getWins(), parallel.getWins());
+
+        // Case 2 - Throughput is reported.
+        assertTrue(parallel.getElapsedNanos() > 0);
+        assertTrue(parallel.getTicksPerSecond() >= parallel.getGamesPerSecond());
+        assertTrue(parallel.toString().startsWith("40 games, "));
+    }
+
+    @Test
+    public void noGames() {
+        SimulationResults results = new SimulationRunner(2).run(0, 10, factory);
+        assertEquals(0, results.getGameCount());
+        assertEquals(0, results.getTotalTicks());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void failuresPropagate() {
+        new SimulationRunner(2).run(10, 10, game -> {
+            throw new IllegalStateException("game " + game);
+        });
+    }
+}
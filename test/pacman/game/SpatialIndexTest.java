@@ -0,0 +1,105 @@
+package pacman.game;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import pacman.ghost.Blinky;
+import pacman.ghost.Clyde;
+import pacman.ghost.Ghost;
+import pacman.ghost.GhostType;
+import pacman.hunter.Phil;
+import pacman.util.Position;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SpatialIndexTest {
+
+    SpatialIndex index;
+
+    @Before
+    public void setUp() throws Exception {
+        index = new SpatialIndex(10, 10, 4);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        index = null;
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidBlockSize() {
+        new SpatialIndex(10, 10, 0);
+    }
+
+    @Test
+    public void entitiesAt() {
+        Ghost blinky = new Blinky();
+        Ghost clyde = new Clyde();
+        Phil phil = new Phil();
+        phil.setPosition(new Position(3, 3));
+        blinky.setPosition(new Position(3, 3));
+        clyde.setPosition(new Position(2, 3));
+        index.add(blinky);
+        index.add(clyde);
+        index.add(phil);
+        Entity[] out = new Entity[3];
+
+        // Case 1 - Only entities on the tile are found, not the rest of the block.
+        assertEquals(3, index.size());
+        assertEquals(2, index.entitiesAt(3, 3, out));
+        List<Entity> found = index.entitiesAt(new Position(3, 3));
+        assertEquals(2, found.size());
+        assertTrue(found.contains(blinky));
+        assertTrue(found.contains(phil));
+        assertEquals(List.of(clyde), index.entitiesAt(new Position(2, 3)));
+
+        // Case 2 - Moving updates the buckets.
+        clyde.setPosition(new Position(9, 9));
+        assertEquals(0, index.entitiesAt(2, 3, out));
+        assertEquals(1, index.entitiesAt(9, 9, out));
+        assertSame(clyde, out[0]);
+
+        // Case 3 - Entities off the board are still found.
+        blinky.setPosition(new Position(-5, 20));
+        assertEquals(List.of(blinky), index.entitiesAt(new Position(-5, 20)));
+        assertEquals(List.of(phil), index.entitiesAt(new Position(3, 3)));
+
+        // Case 4 - Removed entities are no longer tracked and can join another index.
+        assertTrue(index.remove(blinky));
+        assertFalse(index.remove(blinky));
+        assertEquals(0, index.entitiesAt(-5, 20, out));
+        assertEquals(2, index.size());
+        SpatialIndex other = new SpatialIndex(10, 10, 1);
+        other.add(blinky);
+        assertEquals(List.of(blinky), other.entitiesAt(new Position(-5, 20)));
+
+        // Case 5 - A short output array still reports every entity.
+        clyde.setPosition(new Position(3, 3));
+        assertEquals(2, index.entitiesAt(3, 3, new Entity[1]));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void addTwice() {
+        Ghost blinky = new Blinky();
+        index.add(blinky);
+        new SpatialIndex(5, 5, 1).add(blinky);
+    }
+
+    @Test
+    public void storeViews() {
+        EntityStore store = new EntityStore(0);
+        int slot = store.addGhost(GhostType.INKY);
+        index.add(store.ghost(slot));
+
+        // Case 1 - Writes to the store move the view in the index.
+        store.setPosition(slot, 7, 1);
+        assertEquals(List.of(store.ghost(slot)), index.entitiesAt(new Position(7, 1)));
+
+        // Case 2 - Writes through the view do too.
+        store.ghost(slot).setPosition(new Position(0, 8));
+        assertEquals(0, index.entitiesAt(7, 1, new Entity[1]));
+        assertEquals(1, index.entitiesAt(0, 8, new Entity[1]));
+    }
+}
@@ -0,0 +1,130 @@
+package pacman.ghost;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PhaseSchedulerTest {
+
+    PhaseScheduler scheduler;
+    List<String> changes;
+
+    @Before
+    public void setUp() throws Exception {
+        scheduler = new PhaseScheduler(8);
+        changes = new ArrayList<String>();
+        scheduler.setListener((ghost, from, to) ->
+                changes.add(ghost.getType() + ":" + from + "->" + to + "@" + scheduler.getTick()));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        scheduler = null;
+        changes = null;
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidWheelSize() {
+        new PhaseScheduler(0);
+    }
+
+    @Test
+    public void phasesRunOut() {
+        Ghost blinky = new Blinky();
+        Ghost clyde = new Clyde();
+        clyde.setPhase(Phase.CHASE, 3);
+        scheduler.add(blinky);
+        scheduler.add(clyde);
+
+        // Case 1 - Durations count down without touching the ghosts.
+        scheduler.tick();
+        assertEquals(Phase.SCATTER.getDuration() - 1, blinky.getPhaseDuration());
+        assertEquals("CHASE:2", clyde.phaseInfo());
+
+        // Case 2 - A phase runs out into Phase.next() and the listener is told.
+        scheduler.tick();
+        scheduler.tick();
+        assertEquals(Phase.SCATTER, clyde.getPhase());
+        assertEquals(Phase.SCATTER.getDuration(), clyde.getPhaseDuration());
+        assertEquals(List.of("CLYDE:CHASE->SCATTER@3"), changes);
+
+        // Case 3 - Phases longer than the wheel run out on the right tick.
+        for (int i = 0; i < 7; i++) {
+            scheduler.tick();
+        }
+        assertEquals(Phase.CHASE, blinky.getPhase());
+        assertEquals(Phase.CHASE.getDuration(), blinky.getPhaseDuration());
+        assertEquals("BLINKY:SCATTER->CHASE@10", changes.get(1));
+        assertEquals(2, changes.size());
+
+        // Case 4 - Setting a phase reschedules the ghost.
+        blinky.setPhase(Phase.FRIGHTENED, 0);
+        assertEquals(0, blinky.getPhaseDuration());
+        scheduler.tick();
+        assertEquals(Phase.CHASE, blinky.getPhase());
+        assertEquals("BLINKY:FRIGHTENED->CHASE@11", changes.get(2));
+    }
+
+    @Test
+    public void frightenAll() {
+        Ghost blinky = new Blinky();
+        Ghost inky = new Inky();
+        inky.setPhase(Phase.CHASE, 2);
+        scheduler.add(blinky);
+        scheduler.add(inky);
+        scheduler.frightenAll(4);
+
+        // Case 1 - Every ghost is frightened at once.
+        assertEquals("FRIGHTENED:4", blinky.phaseInfo());
+        assertEquals(Phase.FRIGHTENED, inky.getPhase());
+
+        // Case 2 - Own phases keep counting down underneath.
+        scheduler.tick();
+        scheduler.tick();
+        assertEquals(Phase.FRIGHTENED, inky.getPhase());
+        assertEquals(List.of("INKY:CHASE->SCATTER@2"), changes);
+
+        // Case 3 - A ghost given a new phase is no longer frightened.
+        blinky.setPhase(Phase.CHASE, 20);
+        assertEquals(Phase.CHASE, blinky.getPhase());
+        assertEquals(Phase.FRIGHTENED, inky.getPhase());
+        assertEquals(2, inky.getPhaseDuration());
+
+        // Case 4 - Ghosts return to their own phase when it runs out.
+        scheduler.tick();
+        scheduler.tick();
+        assertEquals(Phase.SCATTER, inky.getPhase());
+        assertEquals(Phase.SCATTER.getDuration() - 2, inky.getPhaseDuration());
+
+        // Case 5 - Removing a ghost keeps its phase and duration.
+        scheduler.frightenAll(5);
+        assertTrue(scheduler.remove(inky));
+        assertFalse(scheduler.remove(inky));
+        assertEquals("FRIGHTENED:5", inky.phaseInfo());
+        scheduler.tick();
+        assertEquals(5, inky.getPhaseDuration());
+        assertEquals(1, scheduler.size());
+    }
+
+    @Test
+    public void moveBetweenSchedulers() {
+        Ghost pinky = new Pinky();
+        scheduler.add(pinky);
+        scheduler.tick();
+        PhaseScheduler other = new PhaseScheduler();
+        other.add(pinky);
+
+        // Case 1 - The ghost keeps its remaining duration and leaves the old scheduler.
+        assertEquals(0, scheduler.size());
+        assertEquals(Phase.SCATTER.getDuration() - 1, pinky.getPhaseDuration());
+        scheduler.tick();
+        assertEquals(Phase.SCATTER.getDuration() - 1, pinky.getPhaseDuration());
+        other.tick();
+        assertEquals(Phase.SCATTER.getDuration() - 2, pinky.getPhaseDuration());
+    }
+}
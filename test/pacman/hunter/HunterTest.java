@@ -0,0 +1,165 @@
+package pacman.hunter;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import pacman.game.EntityStore;
+import pacman.ghost.Blinky;
+import pacman.ghost.Clyde;
+import pacman.ghost.Ghost;
+import pacman.ghost.GhostType;
+import pacman.ghost.Inky;
+import pacman.ghost.Phase;
+import pacman.ghost.PhaseScheduler;
+import pacman.util.Position;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class HunterTest {
+
+    Ghost blinky;
+    Ghost clyde;
+    Ghost inky;
+    List<Ghost> ghosts;
+    HitResults results;
+
+    @Before
+    public void setUp() throws Exception {
+        blinky = new Blinky();
+        clyde = new Clyde();
+        inky = new Inky();
+        blinky.setPosition(new Position(2, 2));
+        clyde.setPosition(new Position(2, 2));
+        inky.setPosition(new Position(5, 2));
+        clyde.setPhase(Phase.FRIGHTENED, 10);
+        ghosts = List.of(blinky, clyde, inky);
+        results = new HitResults(1);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        ghosts = null;
+        results = null;
+    }
+
+    @Test
+    public void hitAllPhil() {
+        Hunter phil = new Phil();
+        phil.setPosition(new Position(2, 2));
+        phil.hitAll(ghosts, results);
+
+        // Case 1 - The frightened ghost is eaten and the other one kills the hunter.
+        assertTrue(phil.isDead());
+        assertTrue(results.isHunterKilled());
+        assertEquals(0, results.getKiller());
+        assertEquals(1, results.getKillCount());
+        assertEquals(1, results.getKilled(0));
+        assertTrue(clyde.isDead());
+        assertFalse(blinky.isDead());
+        assertFalse(inky.isDead());
+
+        // Case 2 - Dead ghosts are ignored and the buffer is cleared between calls.
+        phil.reset();
+        phil.setPosition(new Position(2, 2));
+        blinky.kill();
+        phil.hitAll(ghosts, results);
+        assertFalse(phil.isDead());
+        assertFalse(results.isHunterKilled());
+        assertEquals(-1, results.getKiller());
+        assertEquals(0, results.getKillCount());
+    }
+
+    @Test
+    public void hitAllSpecials() {
+        Hunter phasey = new Phasey();
+        phasey.setPosition(new Position(2, 2));
+        phasey.activateSpecial(5);
+        phasey.hitAll(ghosts, results);
+
+        // Case 1 - Phasey passes through chasing ghosts but still eats frightened ones.
+        assertFalse(phasey.isDead());
+        assertFalse(blinky.isDead());
+        assertTrue(clyde.isDead());
+        assertEquals(1, results.getKillCount());
+
+        // Case 2 - Hungry eats every ghost it collides with.
+        clyde.reset();
+        clyde.setPosition(new Position(2, 2));
+        Hunter hungry = new Hungry();
+        hungry.setPosition(new Position(2, 2));
+        hungry.activateSpecial(5);
+        hungry.hitAll(ghosts, results);
+        assertFalse(hungry.isDead());
+        assertEquals(2, results.getKillCount());
+        assertEquals(0, results.getKilled(0));
+        assertEquals(1, results.getKilled(1));
+        assertFalse(inky.isDead());
+
+        // Case 3 - hit() follows the same rules.
+        Ghost pinky = new Inky();
+        Hunter other = new Phasey();
+        other.activateSpecial(5);
+        other.hit(pinky);
+        assertFalse(other.isDead());
+        assertFalse(pinky.isDead());
+        pinky.setPhase(Phase.FRIGHTENED, 5);
+        other.hit(pinky);
+        assertTrue(pinky.isDead());
+    }
+
+    @Test
+    public void hitAllStore() {
+        EntityStore store = new EntityStore(0);
+        int hunterSlot = store.addHunter(HunterType.PHIL);
+        int chasing = store.addGhost(GhostType.BLINKY);
+        int frightened = store.addGhost(GhostType.CLYDE);
+        int away = store.addGhost(GhostType.INKY);
+        store.setPhase(frightened, Phase.FRIGHTENED, 10);
+        store.setPosition(hunterSlot, 3, 4);
+        store.setPosition(chasing, 3, 4);
+        store.setPosition(frightened, 3, 4);
+        store.setPosition(away, 3, 5);
+        Hunter hunter = store.hunter(hunterSlot);
+        hunter.hitAll(store, results);
+
+        // Case 1 - Results are reported by slot and the hunter's own slot is skipped.
+        assertEquals(1, results.getKillCount());
+        assertEquals(frightened, results.getKilled(0));
+        assertEquals(chasing, results.getKiller());
+        assertFalse(store.isAlive(frightened));
+        assertFalse(store.isAlive(hunterSlot));
+        assertTrue(hunter.isDead());
+        assertTrue(store.isAlive(away));
+    }
+
+    @Test
+    public void hitAllStoreFrightenAll() {
+        EntityStore[] stores = {new EntityStore(0), new EntityStore(0)};
+        for (EntityStore store : stores) {
+            int hunterSlot = store.addHunter(HunterType.PHIL);
+            int ghostSlot = store.addGhost(GhostType.BLINKY);
+            store.setPosition(hunterSlot, 3, 4);
+            store.setPosition(ghostSlot, 3, 4);
+            PhaseScheduler scheduler = new PhaseScheduler();
+            scheduler.add(store.ghost(ghostSlot));
+            scheduler.frightenAll(10);
+            assertEquals(Phase.FRIGHTENED, store.getPhase(ghostSlot));
+        }
+        stores[0].hunter(0).hitAll(stores[0], results);
+        stores[1].hunter(0).hit(stores[1].ghost(1));
+
+        // Case 1 - The batch and single ghost paths both see the ghost frightened and eat it.
+        assertEquals(1, results.getKillCount());
+        for (EntityStore store : stores) {
+            assertFalse(store.isAlive(1));
+            assertTrue(store.isAlive(0));
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void getKilledOutOfRange() {
+        results.getKilled(0);
+    }
+}
@@ -0,0 +1,57 @@
+package pacman.path;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import pacman.board.PacmanBoard;
+import pacman.util.Position;
+
+import static org.junit.Assert.*;
+import static pacman.board.BoardItem.*;
+
+public class DistanceFieldCacheTest {
+
+    PacmanBoard board;
+    NavGraphCache cache;
+    PathFinder finder;
+
+    @Before
+    public void setUp() throws Exception {
+        // 7x5 board with a wall from (3, 1) to (3, 2), the only way round is along y = 3
+        board = new PacmanBoard(7, 5);
+        board.setEntry(new Position(3, 1), WALL);
+        board.setEntry(new Position(3, 2), WALL);
+        cache = new NavGraphCache(board);
+        finder = new PathFinder(cache);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        board = null;
+        cache = null;
+        finder = null;
+    }
+
+    @Test
+    public void distance() {
+        // Budget for two fields of 7x5 ints
+        DistanceFieldCache fields = new DistanceFieldCache(cache, 2 * 4 * 35);
+        assertEquals(2, fields.getCapacity());
+        Position target = new Position(5, 1);
+        assertEquals(8, fields.distance(new Position(1, 1), target));
+        assertEquals(0, fields.distance(target, target));
+        assertEquals(-1, fields.distance(new Position(3, 1), target));
+
+        // Least recently used fields are dropped beyond the budget
+        fields.distance(new Position(1, 1), new Position(1, 3));
+        fields.distance(new Position(1, 1), new Position(2, 3));
+        assertEquals(2, fields.size());
+        assertEquals(finder.distance(new Position(5, 3), new Position(1, 1)),
+                fields.distance(new Position(5, 3), new Position(1, 1)));
+
+        // Wall changes drop every field
+        board.setEntry(new Position(3, 3), WALL);
+        assertEquals(-1, fields.distance(new Position(1, 1), target));
+        assertEquals(1, fields.size());
+    }
+}
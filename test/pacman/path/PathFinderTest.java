@@ -0,0 +1,97 @@
+package pacman.path;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import pacman.board.PacmanBoard;
+import pacman.util.Position;
+
+import static org.junit.Assert.*;
+import static pacman.board.BoardItem.*;
+
+public class PathFinderTest {
+
+    PacmanBoard board;
+    NavGraphCache cache;
+    PathFinder finder;
+
+    @Before
+    public void setUp() throws Exception {
+        // 7x5 board with a wall from (3, 1) to (3, 2), the only way round is along y = 3
+        board = new PacmanBoard(7, 5);
+        board.setEntry(new Position(3, 1), WALL);
+        board.setEntry(new Position(3, 2), WALL);
+        cache = new NavGraphCache(board);
+        finder = new PathFinder(cache);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        board = null;
+        cache = null;
+        finder = null;
+    }
+
+    @Test
+    public void compile() {
+        NavGraph graph = cache.get();
+        assertEquals(5 * 3 - 2, graph.getNodeCount());
+        assertEquals(false, graph.isPathable(graph.cellOf(3, 1)));
+        assertEquals(true, graph.isPathable(graph.cellOf(1, 1)));
+    }
+
+    @Test
+    public void distance() {
+        // Case 1 - Around the wall.
+        assertEquals(8, finder.distance(new Position(1, 1), new Position(5, 1)));
+
+        // Case 2 - Same tile.
+        assertEquals(0, finder.distance(new Position(1, 1), new Position(1, 1)));
+
+        // Case 3 - Walls are not reachable.
+        assertEquals(-1, finder.distance(new Position(1, 1), new Position(0, 0)));
+    }
+
+    @Test
+    public void paths() {
+        NavGraph graph = cache.get();
+        int from = graph.cellOf(1, 1);
+        int to = graph.cellOf(5, 1);
+        int[] path = new int[64];
+
+        // Both searches find a shortest path from start to goal.
+        int length = finder.aStarPath(from, to, path);
+        assertEquals(9, length);
+        assertEquals(from, path[0]);
+        assertEquals(to, path[length - 1]);
+        assertEquals(graph.cellOf(3, 3), path[4]);
+        assertEquals(9, finder.bfsPath(from, to, path));
+        assertEquals(graph.cellOf(3, 3), path[4]);
+        assertEquals(to, path[8]);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void pathTooShort() {
+        NavGraph graph = cache.get();
+        finder.aStarPath(graph.cellOf(1, 1), graph.cellOf(5, 1), new int[3]);
+    }
+
+    @Test
+    public void wallChangesInvalidate() {
+        NavGraph before = cache.get();
+
+        // Eating dots keeps the graph.
+        board.setEntry(new Position(1, 1), DOT);
+        board.eatDot(new Position(1, 1));
+        assertSame(before, cache.get());
+
+        // Closing the gap below the wall splits the board.
+        board.setEntry(new Position(3, 3), WALL);
+        assertNotSame(before, cache.get());
+        assertEquals(-1, finder.distance(new Position(1, 1), new Position(5, 1)));
+
+        // Opening the wall again joins it.
+        board.setEntry(new Position(3, 1), NONE);
+        assertEquals(4, finder.distance(new Position(1, 1), new Position(5, 1)));
+    }
+}
@@ -0,0 +1,104 @@
+package pacman.score;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.*;
+
+public class ConcurrentScoreBoardTest {
+
+    ConcurrentScoreBoard scores;
+
+    @Before
+    public void setUp() throws Exception {
+        scores = new ConcurrentScoreBoard(4);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        scores = null;
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidStripes() {
+        new ConcurrentScoreBoard(0);
+    }
+
+    @Test
+    public void matchesScoreBoard() {
+        ScoreBoard plain = new ScoreBoard();
+        String[] names = {"c", "a", "b", "d", "a", "e53.{", "e", "b"};
+        int[] values = {30, 10, 30, 5, 40, 1, -1, 10};
+        for (int i = 0; i < names.length; i++) {
+            plain.setScore(names[i], values[i]);
+            scores.setScore(names[i], values[i]);
+        }
+
+        // Case 1 - Listings, ranks and pages are the same
+        assertEquals(plain.getEntriesByName(), scores.getEntriesByName());
+        assertEquals(plain.getEntriesByScore(), scores.getEntriesByScore());
+        assertEquals(plain.topK(2), scores.topK(2));
+        assertEquals(plain.page(1, 2), scores.page(1, 2));
+        assertEquals(plain.pageByName("a", 2), scores.pageByName("a", 2));
+        for (String name : names) {
+            assertEquals(plain.rankOf(name), scores.rankOf(name));
+        }
+        List<String> iterated = new ArrayList<String>();
+        scores.iterateByScore(1).forEachRemaining(iterated::add);
+        assertEquals(plain.page(1, 10), iterated);
+        scores.setScores(Map.of("f", 50));
+        assertEquals("f : 50", scores.topK(1).get(0));
+
+        // Case 2 - Current score
+        scores.increaseScore(10);
+        scores.increaseScore(-5);
+        assertEquals(10, scores.getScore());
+        scores.reset();
+        assertEquals(0, scores.getScore());
+    }
+
+    @Test
+    public void concurrentWriters() throws InterruptedException {
+        int threads = 8;
+        int writes = 5000;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<Thread>();
+        for (int t = 0; t < threads; t++) {
+            int seed = t;
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < writes; i++) {
+                    // Threads share names so the same name is set from several threads at once
+                    scores.setScore("p" + (i * 7 + seed) % 300, (i * 31 + seed) % 1000);
+                    scores.increaseScore(1);
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        // Case 1 - Every increase is counted
+        assertEquals(threads * writes, scores.getScore());
+
+        // Case 2 - Both orders agree with one entry per name
+        List<String> byName = scores.getEntriesByName();
+        List<String> byScore = scores.getEntriesByScore();
+        assertEquals(300, byName.size());
+        assertEquals(byName.size(), byScore.size());
+        assertTrue(byScore.containsAll(byName));
+    }
+}
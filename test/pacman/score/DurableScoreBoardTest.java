@@ -0,0 +1,186 @@
+package pacman.score;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class DurableScoreBoardTest {
+
+    Path directory;
+
+    @Before
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("scores");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(directory);
+        directory = null;
+    }
+
+    @Test
+    public void recoverFromLog() throws IOException {
+        try (DurableScoreBoard scores = DurableScoreBoard.open(directory, 0)) {
+            scores.setScore("a", 10);
+            scores.setScore("b", 20);
+            scores.setScore("a", 30);
+            scores.setScore("c$", 5);
+            scores.loadScores(new String[] {"d", "e"}, new int[] {40, -1}, 2);
+            scores.increaseScore(100);
+            scores.sync();
+            assertTrue(Files.size(directory.resolve(DurableScoreBoard.LOG_FILE)) > 0);
+        }
+
+        // Case 1 - Every accepted score is replayed from the log, the current score is not stored
+        try (DurableScoreBoard scores = DurableScoreBoard.open(directory, 0)) {
+            assertEquals(List.of("a : 30", "b : 20", "d : 40"), scores.getEntriesByName());
+            assertEquals(List.of("d : 40", "a : 30", "b : 20"), scores.getEntriesByScore());
+            assertEquals(0, scores.getScore());
+
+            // Case 2 - Recovered boards keep logging
+            scores.setScore("b", 50);
+        }
+        try (DurableScoreBoard scores = DurableScoreBoard.open(directory, 0)) {
+            assertEquals(1, scores.rankOf("b"));
+        }
+    }
+
+    @Test
+    public void recoverFromSnapshot() throws IOException {
+        try (DurableScoreBoard scores = DurableScoreBoard.open(directory, 0)) {
+            for (int i = 0; i < 1000; i++) {
+                scores.setScore("p" + i % 100, i);
+            }
+            scores.snapshot();
+            scores.sync();
+
+            // Case 1 - The snapshot empties the log
+            assertTrue(Files.exists(directory.resolve(DurableScoreBoard.SNAPSHOT_FILE)));
+            assertEquals(0, Files.size(directory.resolve(DurableScoreBoard.LOG_FILE)));
+            scores.setScore("p1", 5000);
+            scores.setScore("q", 1);
+        }
+
+        // Case 2 - The snapshot and the log written after it are both recovered
+        try (DurableScoreBoard scores = DurableScoreBoard.open(directory, 0)) {
+            assertEquals(101, scores.getEntriesByName().size());
+            assertEquals(List.of("p1 : 5000", "p99 : 999"), scores.topK(2));
+            assertEquals(List.of("q : 1"), scores.page(100, 5));
+        }
+    }
+
+    @Test
+    public void longName() throws IOException {
+        // Longer than a short can count
+        String name = "a".repeat(70000);
+        try (DurableScoreBoard scores = DurableScoreBoard.open(directory, 0)) {
+            scores.setScore(name, 10);
+            scores.setScore("b", 20);
+            scores.snapshot();
+            scores.sync();
+        }
+
+        // Case 1 - The snapshot keeps every name whole
+        try (DurableScoreBoard scores = DurableScoreBoard.open(directory, 0)) {
+            assertEquals(List.of(name + " : 10", "b : 20"), scores.getEntriesByName());
+        }
+    }
+
+    @Test
+    public void automaticSnapshots() throws IOException {
+        try (DurableScoreBoard scores = DurableScoreBoard.open(directory, 10)) {
+            for (int i = 0; i < 25; i++) {
+                scores.setScore("p" + i, i);
+            }
+        }
+
+        // Case 1 - Snapshots were taken along the way and nothing is lost
+        assertTrue(Files.exists(directory.resolve(DurableScoreBoard.SNAPSHOT_FILE)));
+        try (DurableScoreBoard scores = DurableScoreBoard.open(directory, 10)) {
+            assertEquals(25, scores.getEntriesByName().size());
+            assertEquals(List.of("p24 : 24"), scores.topK(1));
+        }
+    }
+
+    @Test
+    public void tornRecord() throws IOException {
+        try (DurableScoreBoard scores = DurableScoreBoard.open(directory, 0)) {
+            scores.setScore("a", 1);
+            scores.setScore("b", 2);
+        }
+        Path log = directory.resolve(DurableScoreBoard.LOG_FILE);
+        long size = Files.size(log);
+        Files.write(log, new byte[] {0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        // Case 1 - A partly written last record is dropped and cut off the log
+        try (DurableScoreBoard scores = DurableScoreBoard.open(directory, 0)) {
+            assertEquals(List.of("a : 1", "b : 2"), scores.getEntriesByName());
+            assertEquals(size, Files.size(log));
+            scores.setScore("c", 3);
+        }
+        try (DurableScoreBoard scores = DurableScoreBoard.open(directory, 0)) {
+            assertEquals(List.of("a : 1", "b : 2", "c : 3"), scores.getEntriesByName());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void corruptSnapshot() throws IOException {
+        Files.write(directory.resolve(DurableScoreBoard.SNAPSHOT_FILE), new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+        DurableScoreBoard.open(directory, 0);
+    }
+
+    @Test
+    public void failedWriter() throws IOException {
+        // A directory in the way of the temporary snapshot makes the writer fail
+        Files.createDirectory(directory.resolve(DurableScoreBoard.SNAPSHOT_FILE + ".tmp"));
+        DurableScoreBoard scores = DurableScoreBoard.open(directory, 0);
+        scores.setScore("a", 1);
+        scores.snapshot();
+
+        // Case 1 - Waiting for the snapshot reports the failure
+        try {
+            scores.sync();
+            fail("sync() should report the failed snapshot");
+        } catch (IOException expected) {
+        }
+
+        // Case 2 - Later changes are refused instead of queued
+        try {
+            scores.setScore("b", 2);
+            fail("setScore() should refuse scores once the writer has failed");
+        } catch (IllegalStateException expected) {
+            assertTrue(expected.getCause() instanceof IOException);
+        }
+        assertEquals(List.of("a : 1"), scores.getEntriesByName());
+
+        // Case 3 - Closing reports the failure too
+        try {
+            scores.close();
+            fail("close() should report the failed snapshot");
+        } catch (IOException expected) {
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void closed() throws IOException {
+        DurableScoreBoard scores = DurableScoreBoard.open(directory, 0);
+        scores.close();
+        scores.close();
+        scores.setScore("a", 1);
+    }
+}
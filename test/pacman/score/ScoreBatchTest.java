@@ -0,0 +1,52 @@
+package pacman.score;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static org.junit.Assert.*;
+
+public class ScoreBatchTest {
+
+    ScoreBatch.SortedView view;
+
+    @Before
+    public void setUp() throws Exception {
+        view = new ScoreBatch.SortedView(new String[] {"a", "c", "e", "g", null}, new int[] {1, 3, 5, 7, 0}, 4);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        view = null;
+    }
+
+    @Test
+    public void sortedView() {
+        // Case 1 - The view copies into an equal TreeMap
+        TreeMap<String, Integer> copy = new TreeMap<String, Integer>(view);
+        assertEquals(copy, view);
+        assertEquals(List.of("a", "c", "e", "g"), List.copyOf(copy.keySet()));
+        assertEquals(Integer.valueOf(5), view.get("e"));
+        assertNull(view.get("d"));
+        assertFalse(view.containsKey(1));
+
+        // Case 2 - Range views match the TreeMap's, keys between names included
+        assertEquals(copy.subMap("b", "g"), view.subMap("b", "g"));
+        assertEquals(copy.headMap("e"), view.headMap("e"));
+        assertEquals(copy.tailMap("d"), view.tailMap("d"));
+        SortedMap<String, Integer> range = view.subMap("c", "g").tailMap("d");
+        assertEquals(1, range.size());
+        assertEquals("e", range.firstKey());
+        assertEquals("e", range.lastKey());
+        assertTrue(view.subMap("h", "z").isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void subMapReversed() {
+        view.subMap("e", "c");
+    }
+}
@@ -5,9 +5,12 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 
 import static org.junit.Assert.*;
 
@@ -72,6 +75,160 @@ public class ScoreBoardTest {
         assertEquals(e3, s3.getEntriesByScore());
     }
 
+    @Test
+    public void getEntriesByScoreTies() {
+        // Case 1 - Equal scores are all kept and ordered by name
+        List<String> e1 = new ArrayList<String>(List.of("a : 50", "b : 10", "c : 10"));
+        s1.setScore("c", 10);
+        s1.setScore("b", 10);
+        s1.setScore("a", 50);
+        assertEquals(e1, s1.getEntriesByScore());
+
+        // Case 2 - Replaced scores are not listed again
+        List<String> e2 = new ArrayList<String>(List.of("c : 60", "a : 50", "b : 10"));
+        s1.setScore("c", 60);
+        assertEquals(e2, s1.getEntriesByScore());
+    }
+
+    @Test
+    public void ranks() {
+        s1.setScore("d", 30);
+        s1.setScore("a", 10);
+        s1.setScore("c", 30);
+        s1.setScore("b", 40);
+
+        // Case 1 - Ranks follow getEntriesByScore()
+        assertEquals(1, s1.rankOf("b"));
+        assertEquals(2, s1.rankOf("c"));
+        assertEquals(3, s1.rankOf("d"));
+        assertEquals(4, s1.rankOf("a"));
+        assertEquals(-1, s1.rankOf("e"));
+        assertEquals(-1, s1.rankOf(null));
+
+        // Case 2 - Top scores and pages
+        assertEquals(List.of("b : 40", "c : 30"), s1.topK(2));
+        assertEquals(List.of("b : 40", "c : 30", "d : 30", "a : 10"), s1.topK(10));
+        assertEquals(List.of("d : 30", "a : 10"), s1.page(2, 5));
+        assertEquals(List.of("c : 30"), s1.page(1, 1));
+        assertEquals(List.of(), s1.page(4, 3));
+        assertEquals(List.of(), s1.topK(0));
+
+        // Case 3 - Ranks move with new scores
+        s1.setScore("a", 45);
+        assertEquals(1, s1.rankOf("a"));
+        assertEquals(2, s1.rankOf("b"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void pageNegativeOffset() {
+        s1.page(-1, 10);
+    }
+
+    @Test
+    public void ranksMatchSorting() {
+        // Case 1 - Many updates with repeated scores agree with a full sort
+        Random random = new Random(7);
+        Map<String, Integer> expected = new HashMap<String, Integer>();
+        for (int i = 0; i < 3000; i++) {
+            String name = "p" + random.nextInt(500);
+            int score = random.nextInt(100);
+            s1.setScore(name, score);
+            expected.put(name, score);
+        }
+        List<Map.Entry<String, Integer>> sorted = new ArrayList<Map.Entry<String, Integer>>(expected.entrySet());
+        sorted.sort((a, b) -> a.getValue().equals(b.getValue())
+                ? a.getKey().compareTo(b.getKey()) : b.getValue() - a.getValue());
+        List<String> entries = s1.getEntriesByScore();
+        assertEquals(sorted.size(), entries.size());
+        for (int i = 0; i < sorted.size(); i++) {
+            assertEquals(sorted.get(i).getKey() + " : " + sorted.get(i).getValue(), entries.get(i));
+            assertEquals(i + 1, s1.rankOf(sorted.get(i).getKey()));
+        }
+        assertEquals(entries.subList(100, 120), s1.page(100, 20));
+    }
+
+    @Test
+    public void entryFormat() {
+        assertEquals("a : 0", EntryFormat.format("a", 0));
+        assertEquals("abc : 9", EntryFormat.format("abc", 9));
+        assertEquals("b : 10", EntryFormat.format("b", 10));
+        assertEquals("c : 2147483647", EntryFormat.format("c", Integer.MAX_VALUE));
+        assertEquals("d : -2147483648", EntryFormat.format("d", Integer.MIN_VALUE));
+        assertEquals("e : -45", EntryFormat.format("e", -45));
+    }
+
+    @Test
+    public void pageByName() {
+        s1.setScore("d", 4);
+        s1.setScore("b", 2);
+        s1.setScore("a", 1);
+        s1.setScore("c", 3);
+
+        // Case 1 - Pages follow on from the last name of the previous page
+        assertEquals(List.of("a : 1", "b : 2"), s1.pageByName(null, 2));
+        assertEquals(List.of("c : 3", "d : 4"), s1.pageByName("b", 2));
+        assertEquals(List.of(), s1.pageByName("d", 2));
+
+        // Case 2 - Names added before the cursor do not shift the next page
+        s1.setScore("aa", 7);
+        assertEquals(List.of("c : 3"), s1.pageByName("b", 1));
+        assertEquals(List.of("c : 3", "d : 4"), s1.pageByName("bb", 5));
+    }
+
+    @Test
+    public void iterators() {
+        s1.setScore("b", 20);
+        s1.setScore("a", 10);
+        s1.setScore("c", 30);
+
+        // Case 1 - Entries are formatted in order
+        List<String> byName = new ArrayList<String>();
+        s1.iterateByName().forEachRemaining(byName::add);
+        assertEquals(s1.getEntriesByName(), byName);
+        List<String> byScore = new ArrayList<String>();
+        s1.iterateByScore(0).forEachRemaining(byScore::add);
+        assertEquals(s1.getEntriesByScore(), byScore);
+
+        // Case 2 - Score iteration can start part way through
+        Iterator<String> iterator = s1.iterateByScore(1);
+        assertEquals("b : 20", iterator.next());
+        assertEquals("a : 10", iterator.next());
+        assertFalse(iterator.hasNext());
+        assertFalse(s1.iterateByScore(3).hasNext());
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void iterateByScoreModified() {
+        s1.setScore("a", 10);
+        s1.setScore("b", 20);
+        Iterator<String> iterator = s1.iterateByScore(0);
+        iterator.next();
+        s1.setScore("a", 30);
+        iterator.next();
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void iterateByNameLoaded() {
+        s1.setScore("a", 10);
+        s1.setScore("b", 20);
+        Iterator<String> iterator = s1.iterateByName();
+        iterator.next();
+        s1.loadScores(new String[] {"c"}, new int[] {30}, 1);
+        iterator.next();
+    }
+
+    @Test
+    public void loadNoScores() {
+        s1.setScore("a", 10);
+        Iterator<String> iterator = s1.iterateByScore(0);
+
+        // Case 1 - A batch with nothing to set leaves the board and its iterators alone
+        LoadResult result = s1.loadScores(new String[] {"b$", "c"}, new int[] {20, -1}, 2);
+        assertEquals(0, result.getAccepted());
+        assertEquals(2, result.getRejected());
+        assertEquals("a : 10", iterator.next());
+    }
+
     @Test
     public void setScore() {
         // Case 1 - Single Case
@@ -134,6 +291,76 @@ public class ScoreBoardTest {
         assertEquals(e4, s4.getEntriesByName());
     }
 
+    @Test
+    public void nameValidAscii() {
+        // Case 1 - Letters and digits outside A to Z, a to z and 0 to 9 are rejected
+        s1.setScore("caf\u00e9", 5);
+        s1.setScore("\u0661\u0662", 5);
+        s1.setScore("", 5);
+        s1.setScore(null, 5);
+        assertEquals(List.of(), s1.getEntriesByName());
+
+        // Case 2 - Every allowed character is accepted
+        s1.setScore("AZaz09", 5);
+        assertEquals(List.of("AZaz09 : 5"), s1.getEntriesByName());
+    }
+
+    @Test
+    public void loadScores() {
+        String[] names = {"b", "a", "c$", "b", "d", "e", null, "a"};
+        int[] values = {10, 20, 5, 30, -1, 40, 3, 25, 99};
+        s1.setScore("e", 1);
+        s1.setScore("f", 15);
+        LoadResult result = s1.loadScores(names, values, 8);
+
+        // Case 1 - Counts and the last score for a name wins
+        assertEquals(5, result.getAccepted());
+        assertEquals(3, result.getRejected());
+        assertEquals("5 accepted, 3 rejected", result.toString());
+        assertEquals(List.of("a : 25", "b : 30", "e : 40", "f : 15"), s1.getEntriesByName());
+        assertEquals(List.of("e : 40", "b : 30", "a : 25", "f : 15"), s1.getEntriesByScore());
+        assertEquals(3, s1.rankOf("a"));
+
+        // Case 2 - The board keeps working after a bulk load
+        s1.setScore("g", 35);
+        s1.setScore("e", 0);
+        assertEquals(List.of("g : 35", "b : 30", "a : 25", "f : 15", "e : 0"), s1.getEntriesByScore());
+
+        // Case 3 - Map loads reject null scores
+        Map<String, Integer> scores = new HashMap<String, Integer>();
+        scores.put("h", null);
+        scores.put("i", 7);
+        result = s2.loadScores(scores);
+        assertEquals(1, result.getAccepted());
+        assertEquals(1, result.getRejected());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void loadScoresBadCount() {
+        s1.loadScores(new String[2], new int[1], 2);
+    }
+
+    @Test
+    public void loadScoresMatchesSetScore() {
+        Random random = new Random(11);
+        ScoreBoard expected = new ScoreBoard();
+        // Case 1 - Large and small batches against a growing board
+        for (int batch : new int[] {2000, 5, 3000, 10}) {
+            String[] names = new String[batch];
+            int[] values = new int[batch];
+            for (int i = 0; i < batch; i++) {
+                names[i] = "p" + random.nextInt(2500);
+                values[i] = random.nextInt(200) - 10;
+                expected.setScore(names[i], values[i]);
+            }
+            s1.loadScores(names, values, batch);
+            assertEquals(expected.getEntriesByName(), s1.getEntriesByName());
+            assertEquals(expected.getEntriesByScore(), s1.getEntriesByScore());
+            assertEquals(expected.page(100, 30), s1.page(100, 30));
+            assertEquals(expected.rankOf("p7"), s1.rankOf("p7"));
+        }
+    }
+
     @Test
     public void increaseScore() {
         // Case 1
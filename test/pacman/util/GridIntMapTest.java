@@ -0,0 +1,27 @@
+package pacman.util;
+
+import org.junit.Test;
+import pacman.board.PacmanBoard;
+
+import static org.junit.Assert.*;
+
+public class GridIntMapTest {
+
+    @Test
+    public void putGetRemove() {
+        GridIntMap grid = GridIntMap.forBoard(new PacmanBoard(4, 3), -1);
+        assertEquals(-1, grid.get(3, 2));
+        assertEquals(-1, grid.put(3, 2, 9));
+        assertEquals(10, grid.add(3, 2, 1));
+        assertEquals(4, grid.add(0, 0, 4));
+        assertEquals(2, grid.size());
+        assertEquals(10, grid.remove(3, 2));
+        assertEquals(-1, grid.get(new Position(3, 2)));
+        assertEquals(1, grid.size());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void outsideGrid() {
+        new GridIntMap(4, 3, 0).get(4, 0);
+    }
+}
@@ -0,0 +1,48 @@
+package pacman.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PositionIntMapTest {
+
+    @Test
+    public void putGetRemove() {
+        PositionIntMap map = new PositionIntMap(0, -1);
+
+        // Case 1 - Missing keys.
+        assertEquals(-1, map.get(1, 2));
+        assertEquals(false, map.containsKey(1, 2));
+
+        // Case 2 - Grows past its expected size and keeps every entry.
+        for (int x = -20; x < 20; x++) {
+            for (int y = 0; y < 20; y++) {
+                map.put(x, y, x * 100 + y);
+            }
+        }
+        assertEquals(800, map.size());
+        assertEquals(-1895, map.get(new Position(-19, 5)));
+        assertEquals(-1895, map.put(-19, 5, 7));
+        assertEquals(7, map.get(-19, 5));
+
+        // Case 3 - Removing keeps the rest reachable.
+        for (int x = -20; x < 20; x += 2) {
+            for (int y = 0; y < 20; y++) {
+                map.remove(x, y);
+            }
+        }
+        assertEquals(400, map.size());
+        assertEquals(-1, map.get(-20, 3));
+        assertEquals(1913, map.get(19, 13));
+    }
+
+    @Test
+    public void add() {
+        PositionIntMap map = new PositionIntMap(4, -1);
+        assertEquals(3, map.add(5, 5, 3));
+        assertEquals(5, map.add(5, 5, 2));
+        int[] total = new int[1];
+        map.forEach((x, y, value) -> total[0] += value);
+        assertEquals(5, total[0]);
+    }
+}
@@ -0,0 +1,24 @@
+package pacman.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PositionSetTest {
+
+    @Test
+    public void addContainsRemove() {
+        PositionSet set = new PositionSet(2);
+        assertEquals(true, set.add(1, 2));
+        assertEquals(true, set.add(2, 1));
+        assertEquals(false, set.add(new Position(1, 2)));
+        for (int i = 0; i < 100; i++) {
+            set.add(i, -i);
+        }
+        assertEquals(102, set.size());
+        assertEquals(true, set.remove(50, -50));
+        assertEquals(false, set.contains(50, -50));
+        assertEquals(true, set.contains(99, -99));
+        assertEquals(true, set.contains(new Position(2, 1)));
+    }
+}
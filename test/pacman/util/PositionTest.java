@@ -0,0 +1,88 @@
+package pacman.util;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class PositionTest {
+
+    @Test
+    public void of() {
+        // Case 1 - Small positions are shared.
+        assertSame(Position.of(3, 4), Position.of(3, 4));
+        assertEquals(new Position(3, 4), Position.of(3, 4));
+
+        // Case 2 - Other positions are still equal.
+        assertEquals(new Position(-1, 1000), Position.of(-1, 1000));
+    }
+
+    @Test
+    public void pack() {
+        long packed = Position.pack(-7, 12);
+        assertEquals(-7, Position.unpackX(packed));
+        assertEquals(12, Position.unpackY(packed));
+        assertEquals(new Position(-7, 12), Position.unpack(packed));
+        assertEquals(packed, new Position(-7, 12).toPacked());
+        assertEquals(Position.pack(-6, 10), Position.addPacked(packed, Position.pack(1, -2)));
+    }
+
+    @Test
+    public void hashCodeSpread() {
+        // Case 1 - Positions on the same diagonal no longer collide.
+        assertNotEquals(new Position(1, 2).hashCode(), new Position(2, 1).hashCode());
+        assertNotEquals(new Position(0, 3).hashCode(), new Position(1, 2).hashCode());
+
+        // Case 2 - A 64x64 board has no collisions.
+        Set<Integer> hashes = new HashSet<Integer>();
+        for (int x = 0; x < 64; x++) {
+            for (int y = 0; y < 64; y++) {
+                hashes.add(new Position(x, y).hashCode());
+            }
+        }
+        assertEquals(64 * 64, hashes.size());
+        assertEquals(Position.hash(5, 9), new Position(5, 9).hashCode());
+    }
+
+    @Test
+    public void positionCache() {
+        PositionCache cache = new PositionCache(300, 2);
+        assertSame(cache.get(299, 1), cache.get(599));
+        assertEquals(new Position(299, 1), cache.get(Position.pack(299, 1)));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void positionCacheIndex() {
+        new PositionCache(3, 3).get(3, 0);
+    }
+
+    @Test
+    public void distances() {
+        Position a = new Position(1, 2);
+        Position b = new Position(4, 6);
+        assertEquals(5.0, a.distance(b), 1e-9);
+        assertEquals(25, a.distanceSquared(b));
+        assertEquals(7, a.manhattanDistance(b));
+        assertEquals(4, a.chebyshevDistance(b));
+        assertEquals(0, a.manhattanDistance(a));
+    }
+
+    @Test
+    public void nearest() {
+        int[] xs = {10, 3, 0, 5};
+        int[] ys = {0, 3, 5, 0};
+        // From ( 0, 0 ): squared 100, 18, 25, 25 / manhattan 10, 6, 5, 5 / chebyshev 10, 3, 5, 5
+        assertEquals(1, Position.nearestSquared(0, 0, xs, ys, 4));
+        assertEquals(2, Position.nearestManhattan(0, 0, xs, ys, 4));
+        assertEquals(1, Position.nearestChebyshev(0, 0, xs, ys, 4));
+        assertEquals(0, Position.nearestManhattan(0, 0, xs, ys, 1));
+        assertEquals(-1, Position.nearestSquared(0, 0, xs, ys, 0));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void nearestCount() {
+        Position.nearestSquared(0, 0, new int[2], new int[1], 2);
+    }
+}